@@ -1,9 +1,13 @@
 package com.wrightlabs.marketplace.admin.service;
 
+import com.wrightlabs.marketplace.catalog.event.ProductChangedEvent;
+import com.wrightlabs.marketplace.catalog.search.ProductDocument;
+import com.wrightlabs.marketplace.catalog.service.RatingStatsService;
 import com.wrightlabs.marketplace.domain.entity.*;
 import com.wrightlabs.marketplace.domain.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +29,8 @@ public class AdminService {
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
     private final ReviewRepository reviewRepository;
+    private final RatingStatsService ratingStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // User Management
     public Page<User> getAllUsers(Pageable pageable) {
@@ -64,20 +70,24 @@ public class AdminService {
     public void approveProduct(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        ProductDocument previous = ProductDocument.from(product);
 
         product.setStatus(Product.ProductStatus.PUBLISHED);
         productRepository.save(product);
         log.info("Approved product: {}", product.getTitle());
+        eventPublisher.publishEvent(ProductChangedEvent.saved(previous, ProductDocument.from(product)));
     }
 
     @Transactional
     public void archiveProduct(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        ProductDocument previous = ProductDocument.from(product);
 
         product.setStatus(Product.ProductStatus.ARCHIVED);
         productRepository.save(product);
         log.info("Archived product: {}", product.getTitle());
+        eventPublisher.publishEvent(ProductChangedEvent.saved(previous, ProductDocument.from(product)));
     }
 
     // Review Moderation
@@ -94,8 +104,10 @@ public class AdminService {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found"));
 
+        Review.ReviewStatus previousStatus = review.getStatus();
         review.setStatus(Review.ReviewStatus.APPROVED);
         reviewRepository.save(review);
+        ratingStatsService.reviewStatusChanged(review, previousStatus);
         log.info("Approved review: {}", reviewId);
     }
 
@@ -104,8 +116,10 @@ public class AdminService {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found"));
 
+        Review.ReviewStatus previousStatus = review.getStatus();
         review.setStatus(Review.ReviewStatus.REJECTED);
         reviewRepository.save(review);
+        ratingStatsService.reviewStatusChanged(review, previousStatus);
         log.info("Rejected review: {}", reviewId);
     }
 
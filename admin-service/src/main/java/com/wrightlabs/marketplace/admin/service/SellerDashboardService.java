@@ -1,8 +1,7 @@
 package com.wrightlabs.marketplace.admin.service;
 
-import com.wrightlabs.marketplace.domain.entity.Order;
-import com.wrightlabs.marketplace.domain.entity.OrderItem;
 import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.repository.OrderItemRepository;
 import com.wrightlabs.marketplace.domain.repository.OrderRepository;
 import com.wrightlabs.marketplace.domain.repository.ProductRepository;
 import lombok.Data;
@@ -10,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,7 +18,6 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,39 +26,17 @@ import java.util.stream.Collectors;
 public class SellerDashboardService {
 
         private final OrderRepository orderRepository;
+        private final OrderItemRepository orderItemRepository;
         private final ProductRepository productRepository;
 
         public SellerDashboardStats getSellerStats(Long sellerId) {
-                // Get all seller's products
-                List<Product> products = productRepository.findBySellerId(sellerId, Pageable.unpaged()).getContent();
-
-                // Get all orders containing seller's products
-                List<Order> orders = orderRepository.findAll().stream()
-                                .filter(order -> order.getStatus() == Order.OrderStatus.PAID)
-                                .filter(order -> order.getItems().stream()
-                                                .anyMatch(item -> item.getSeller().getId().equals(sellerId)))
-                                .collect(Collectors.toList());
-
-                // Calculate stats
-                int totalSales = orders.size();
-
-                BigDecimal totalRevenue = orders.stream()
-                                .flatMap(order -> order.getItems().stream())
-                                .filter(item -> item.getSeller().getId().equals(sellerId))
-                                .map(OrderItem::getSellerAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                int totalProducts = products.size();
-
-                int publishedProducts = (int) products.stream()
-                                .filter(p -> p.getStatus() == Product.ProductStatus.PUBLISHED)
-                                .count();
-
+                // Aggregated in the database instead of walking every order's items
                 SellerDashboardStats stats = new SellerDashboardStats();
-                stats.setTotalSales(totalSales);
-                stats.setTotalRevenue(totalRevenue);
-                stats.setTotalProducts(totalProducts);
-                stats.setPublishedProducts(publishedProducts);
+                stats.setTotalSales((int) orderItemRepository.countPaidOrdersBySeller(sellerId));
+                stats.setTotalRevenue(orderItemRepository.sumPaidSellerAmount(sellerId));
+                stats.setTotalProducts((int) productRepository.countBySellerId(sellerId));
+                stats.setPublishedProducts((int) productRepository.countBySellerIdAndStatus(sellerId,
+                                Product.ProductStatus.PUBLISHED));
 
                 return stats;
         }
@@ -76,16 +51,11 @@ public class SellerDashboardService {
         public Map<String, Integer> getSalesByPeriod(Long sellerId, int days) {
                 LocalDateTime startDate = LocalDateTime.now().minusDays(days);
 
-                List<Order> orders = orderRepository.findAll().stream()
-                                .filter(order -> order.getStatus() == Order.OrderStatus.PAID)
-                                .filter(order -> order.getCreatedAt().isAfter(startDate))
-                                .filter(order -> order.getItems().stream()
-                                                .anyMatch(item -> item.getSeller().getId().equals(sellerId)))
-                                .collect(Collectors.toList());
+                List<LocalDateTime> orderTimes = orderRepository.findPaidTimesBySellerSince(sellerId, startDate);
 
                 Map<String, Integer> salesByDate = new HashMap<>();
-                for (Order order : orders) {
-                        String date = order.getCreatedAt().toLocalDate().toString();
+                for (LocalDateTime orderTime : orderTimes) {
+                        String date = orderTime.toLocalDate().toString();
                         salesByDate.put(date, salesByDate.getOrDefault(date, 0) + 1);
                 }
 
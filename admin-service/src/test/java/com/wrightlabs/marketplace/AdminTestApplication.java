@@ -0,0 +1,11 @@
+package com.wrightlabs.marketplace;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Boot configuration for the admin module's slice tests; the module has
+ * no application class of its own.
+ */
+@SpringBootApplication
+public class AdminTestApplication {
+}
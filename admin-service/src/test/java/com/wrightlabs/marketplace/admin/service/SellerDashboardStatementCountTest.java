@@ -0,0 +1,92 @@
+package com.wrightlabs.marketplace.admin.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements issued by the seller dashboard, counted with Hibernate
+ * statistics. The figures are aggregated in the database, so the count
+ * stays the same however many orders the seller has.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import(SellerDashboardService.class)
+class SellerDashboardStatementCountTest {
+
+    private static final int ORDERS = 10;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private SellerDashboardService sellerDashboardService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private long sellerId;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        sellerId = insertUser("seller@example.com", "SELLER");
+        long buyerId = insertUser("buyer@example.com", "BUYER");
+        long productId = jdbcTemplate.queryForObject("INSERT INTO products (seller_id, title, price, status) "
+                + "VALUES (?, 'Lesson', 10.00, 'PUBLISHED') RETURNING id", Long.class, sellerId);
+        for (int i = 0; i < ORDERS; i++) {
+            long orderId = jdbcTemplate.queryForObject("INSERT INTO orders "
+                    + "(order_number, buyer_id, buyer_email, total_amount, status, paid_at) "
+                    + "VALUES (?, ?, 'buyer@example.com', 10.00, 'PAID', now()) RETURNING id", Long.class,
+                    "ORD-TEST-" + i, buyerId);
+            jdbcTemplate.update("INSERT INTO order_items "
+                    + "(order_id, product_id, seller_id, product_title, price, platform_fee, seller_amount) "
+                    + "VALUES (?, ?, ?, 'Lesson', 10.00, 1.50, 8.50)", orderId, productId, sellerId);
+        }
+    }
+
+    @Test
+    void sellerStatsAreFourAggregateStatements() {
+        statistics.clear();
+        SellerDashboardService.SellerDashboardStats stats = sellerDashboardService.getSellerStats(sellerId);
+
+        assertThat(stats.getTotalSales()).isEqualTo(ORDERS);
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("85.00");
+        assertThat(stats.getTotalProducts()).isEqualTo(1);
+        assertThat(stats.getPublishedProducts()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void salesByPeriodIsOneStatement() {
+        statistics.clear();
+        Map<String, Integer> sales = sellerDashboardService.getSalesByPeriod(sellerId, 30);
+
+        assertThat(sales.values()).containsExactly(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private long insertUser(String email, String role) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (email, password_hash, role) VALUES (?, 'x', ?) "
+                + "RETURNING id", Long.class, email, role);
+    }
+}
@@ -44,6 +44,7 @@ public class SecurityConfig {
                                 "/images/**",
                                 "/webjars/**",
                                 "/actuator/health",
+                                "/files/**", // Local storage downloads; authorized by their signature
                                 "/webhook/**" // PayFast webhook
                         ).permitAll()
 
@@ -0,0 +1,16 @@
+package com.wrightlabs.marketplace.catalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "counters")
+@Data
+public class CounterProperties {
+    private Duration flushInterval = Duration.ofSeconds(10);
+    private int flushBatchSize = 500;
+    private Duration shutdownFlushTimeout = Duration.ofSeconds(5);
+}
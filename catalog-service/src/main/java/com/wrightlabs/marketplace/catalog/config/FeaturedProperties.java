@@ -0,0 +1,16 @@
+package com.wrightlabs.marketplace.catalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "featured")
+@Data
+public class FeaturedProperties {
+    private int railSize = 6;
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    private Duration changeRefreshDelay = Duration.ofSeconds(30);
+}
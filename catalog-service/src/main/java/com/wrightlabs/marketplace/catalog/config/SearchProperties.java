@@ -0,0 +1,25 @@
+package com.wrightlabs.marketplace.catalog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "search")
+@Data
+public class SearchProperties {
+    private boolean indexEnabled = true;
+    private int indexBatchSize = 500;
+    private double bm25K1 = 1.2;
+    private double bm25B = 0.75;
+    private long exactCountThreshold = 1000;
+    private long resultCacheSize = 10_000;
+    private Duration resultCacheTtl = Duration.ofMinutes(5);
+    private Duration suggestRefreshDelay = Duration.ofSeconds(30);
+    private List<BigDecimal> priceBucketEdges = List.of(
+            new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("200"), new BigDecimal("500"));
+}
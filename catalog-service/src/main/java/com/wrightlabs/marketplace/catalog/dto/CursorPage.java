@@ -0,0 +1,22 @@
+package com.wrightlabs.marketplace.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is an opaque
+ * token to pass back for the following page, or null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.wrightlabs.marketplace.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCount {
+
+    private String value;
+    private String label;
+    private long count;
+
+    // Only set for price buckets
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    public static FacetCount of(String value, long count) {
+        return new FacetCount(value, value, count, null, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.wrightlabs.marketplace.catalog.dto;
+
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class FacetedSearchResult {
+
+    private SearchPage<ProductCard> products;
+
+    // Facet name (grade, subject, resourceType, price) to value counts
+    private Map<String, List<FacetCount>> facets;
+}
@@ -0,0 +1,19 @@
+package com.wrightlabs.marketplace.catalog.dto;
+
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One consistent snapshot of all homepage rails.
+ */
+@Value
+public class FeaturedRails {
+
+    List<ProductCard> bestsellers;
+    List<ProductCard> newest;
+    List<ProductCard> topRated;
+    Instant refreshedAt;
+}
@@ -0,0 +1,26 @@
+package com.wrightlabs.marketplace.catalog.dto;
+
+import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductFile;
+import com.wrightlabs.marketplace.domain.entity.ProductRatingStats;
+import com.wrightlabs.marketplace.domain.entity.Review;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Everything the product page renders, loaded up front so the view never
+ * triggers a lazy load.
+ */
+@Value
+public class ProductDetailView {
+
+    Product product;
+    String storeName;
+    List<ProductFile> files;
+    ProductRatingStats ratingStats;
+
+    /** First page of approved reviews, newest first. */
+    List<Review> reviews;
+    boolean moreReviews;
+}
@@ -21,5 +21,10 @@ public class ProductSearchCriteria {
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Set<String> tags;
+    private String tagMatch; // all (default), any
     private String sortBy; // newest, price_asc, price_desc, rating, popularity
+
+    public boolean isMatchAnyTag() {
+        return "any".equalsIgnoreCase(tagMatch);
+    }
 }
@@ -0,0 +1,29 @@
+package com.wrightlabs.marketplace.catalog.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Search result page whose total may be a planner estimate rather than an
+ * exact count. When {@code approximate} is set, templates should render
+ * "{@code countFloor}+ results" instead of the total.
+ */
+@Getter
+public class SearchPage<T> extends PageImpl<T> {
+
+    private final boolean approximate;
+    private final long countFloor;
+
+    public SearchPage(List<T> content, Pageable pageable, long total) {
+        this(content, pageable, total, false, total);
+    }
+
+    public SearchPage(List<T> content, Pageable pageable, long total, boolean approximate, long countFloor) {
+        super(content, pageable, total);
+        this.approximate = approximate;
+        this.countFloor = countFloor;
+    }
+}
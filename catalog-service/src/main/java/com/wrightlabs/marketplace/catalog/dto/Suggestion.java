@@ -0,0 +1,18 @@
+package com.wrightlabs.marketplace.catalog.dto;
+
+import lombok.Value;
+
+/**
+ * One typeahead suggestion. {@code productId} is set for product titles only.
+ */
+@Value
+public class Suggestion {
+
+    public enum Type {
+        TITLE, TAG, SUBJECT
+    }
+
+    String text;
+    Type type;
+    Long productId;
+}
@@ -0,0 +1,41 @@
+package com.wrightlabs.marketplace.catalog.event;
+
+import com.wrightlabs.marketplace.catalog.search.ProductDocument;
+import lombok.Value;
+
+/**
+ * Published whenever a product is created, edited, changes status or is
+ * deleted. In-memory read models listen for it after the transaction commits.
+ */
+@Value
+public class ProductChangedEvent {
+
+    Long productId;
+
+    /**
+     * Snapshot of the product before the change, or {@code null} if it was
+     * created.
+     */
+    ProductDocument previous;
+
+    /**
+     * Snapshot of the product as committed, or {@code null} if it was deleted.
+     */
+    ProductDocument document;
+
+    public static ProductChangedEvent created(ProductDocument document) {
+        return new ProductChangedEvent(document.getId(), null, document);
+    }
+
+    public static ProductChangedEvent saved(ProductDocument previous, ProductDocument document) {
+        return new ProductChangedEvent(document.getId(), previous, document);
+    }
+
+    public static ProductChangedEvent deleted(ProductDocument previous) {
+        return new ProductChangedEvent(previous.getId(), previous, null);
+    }
+
+    public boolean isDeleted() {
+        return document == null;
+    }
+}
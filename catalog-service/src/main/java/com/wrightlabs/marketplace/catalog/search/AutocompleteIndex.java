@@ -0,0 +1,146 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import com.wrightlabs.marketplace.catalog.config.SearchProperties;
+import com.wrightlabs.marketplace.catalog.dto.Suggestion;
+import com.wrightlabs.marketplace.catalog.event.ProductChangedEvent;
+import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over published product titles, tags and subjects, weighted by
+ * purchases. Lookups run against an immutable {@link Suggester} snapshot.
+ * Unpublished products drop out of results immediately; newly published
+ * ones appear once the snapshot is rebuilt, which happens in the background
+ * shortly after a change.
+ */
+@Component
+@Slf4j
+public class AutocompleteIndex {
+
+    public static final int MAX_LIMIT = 10;
+
+    private final ProductRepository productRepository;
+    private final SearchProperties searchProperties;
+    private final Map<Long, Source> sources = new ConcurrentHashMap<>();
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private volatile Suggester suggester = Suggester.EMPTY;
+
+    public AutocompleteIndex(ProductRepository productRepository, SearchProperties searchProperties) {
+        this.productRepository = productRepository;
+        this.searchProperties = searchProperties;
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return suggester.lookup(prefix, Math.max(1, Math.min(limit, MAX_LIMIT)),
+                suggestion -> suggestion.getProductId() == null || sources.containsKey(suggestion.getProductId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!searchProperties.isIndexEnabled()) {
+            return;
+        }
+
+        Pageable pageable = PageRequest.of(0, searchProperties.getIndexBatchSize(), Sort.by("id"));
+        Page<Product> batch;
+        do {
+            batch = productRepository.findByStatus(Product.ProductStatus.PUBLISHED, pageable);
+            batch.forEach(product -> sources.put(product.getId(), Source.of(ProductDocument.from(product))));
+            pageable = batch.nextPageable();
+        } while (batch.hasNext());
+
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!searchProperties.isIndexEnabled()) {
+            return;
+        }
+        if (event.isDeleted() || !event.getDocument().isPublished()) {
+            sources.remove(event.getProductId());
+        } else {
+            sources.put(event.getProductId(), Source.of(event.getDocument()));
+        }
+        changed.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest-refresh-delay:PT30S}")
+    public void rebuildIfChanged() {
+        if (changed.compareAndSet(true, false)) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Suggester.Entry> entries = new ArrayList<>(sources.size());
+        Map<String, Long> tagWeights = new HashMap<>();
+        Map<String, Long> subjectWeights = new HashMap<>();
+
+        for (Map.Entry<Long, Source> entry : sources.entrySet()) {
+            Source source = entry.getValue();
+            long weight = source.purchases + 1L;
+            entries.add(new Suggester.Entry(
+                    new Suggestion(source.title, Suggestion.Type.TITLE, entry.getKey()), weight));
+            for (String tag : source.tags) {
+                tagWeights.merge(tag, weight, Long::sum);
+            }
+            if (source.subject != null) {
+                subjectWeights.merge(source.subject, weight, Long::sum);
+            }
+        }
+        tagWeights.forEach((tag, weight) -> entries.add(
+                new Suggester.Entry(new Suggestion(tag, Suggestion.Type.TAG, null), weight)));
+        subjectWeights.forEach((subject, weight) -> entries.add(
+                new Suggester.Entry(new Suggestion(subject, Suggestion.Type.SUBJECT, null), weight)));
+
+        suggester = new Suggester(entries, MAX_LIMIT * 2);
+        log.info("Built autocomplete index: {} entries in {} ms",
+                suggester.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * The few fields suggestions are built from, kept per published product.
+     */
+    private static final class Source {
+        private final String title;
+        private final Set<String> tags;
+        private final String subject;
+        private final int purchases;
+
+        private Source(String title, Set<String> tags, String subject, int purchases) {
+            this.title = title;
+            this.tags = tags;
+            this.subject = subject;
+            this.purchases = purchases;
+        }
+
+        static Source of(ProductDocument document) {
+            return new Source(document.getTitle(), new LinkedHashSet<>(document.getTags()),
+                    document.getSubject(), document.getPurchases());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import com.wrightlabs.marketplace.catalog.dto.FacetCount;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One compressed bitmap of doc ordinals per facet value, so facet counts for
+ * any result set are a bitmap intersection rather than a database scan.
+ *
+ * Not thread-safe; {@link ProductSearchIndex} guards it with its lock.
+ */
+final class FacetIndex {
+
+    static final String GRADE = "grade";
+    static final String SUBJECT = "subject";
+    static final String RESOURCE_TYPE = "resourceType";
+    static final String PRICE = "price";
+
+    private static final Map<String, Function<ProductDocument, String>> METADATA_FACETS = Map.of(
+            GRADE, ProductDocument::getGrade,
+            SUBJECT, ProductDocument::getSubject,
+            RESOURCE_TYPE, ProductDocument::getResourceType);
+
+    private static final BigDecimal CENT = new BigDecimal("0.01");
+
+    private final List<BigDecimal> priceEdges;
+    private final Map<String, Map<String, RoaringBitmap>> bitmaps = new LinkedHashMap<>();
+    private final RoaringBitmap allDocs = new RoaringBitmap();
+
+    /**
+     * @param priceEdges ascending bucket boundaries; n edges give n + 1 buckets
+     */
+    FacetIndex(List<BigDecimal> priceEdges) {
+        this.priceEdges = List.copyOf(priceEdges);
+        for (String facet : List.of(GRADE, SUBJECT, RESOURCE_TYPE, PRICE)) {
+            bitmaps.put(facet, new LinkedHashMap<>());
+        }
+    }
+
+    void add(int doc, ProductDocument document) {
+        allDocs.add(doc);
+        METADATA_FACETS.forEach((facet, getter) -> {
+            String value = getter.apply(document);
+            if (value != null && !value.isBlank()) {
+                bitmaps.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(doc);
+            }
+        });
+        bitmaps.get(PRICE).computeIfAbsent(priceBucket(document.getPrice()), v -> new RoaringBitmap()).add(doc);
+    }
+
+    void remove(int doc, ProductDocument document) {
+        allDocs.remove(doc);
+        METADATA_FACETS.forEach((facet, getter) -> removeFrom(facet, getter.apply(document), doc));
+        removeFrom(PRICE, priceBucket(document.getPrice()), doc);
+    }
+
+    RoaringBitmap allDocs() {
+        return allDocs;
+    }
+
+    /**
+     * Docs having the given facet value; empty if the value is unknown.
+     */
+    RoaringBitmap docsWith(String facet, String value) {
+        RoaringBitmap bitmap = bitmaps.get(facet).get(value);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    /**
+     * Count of docs in {@code base} for every value of the facet, most
+     * frequent first. Price buckets keep their natural order instead.
+     */
+    List<FacetCount> counts(String facet, RoaringBitmap base) {
+        List<FacetCount> counts = new ArrayList<>();
+        if (PRICE.equals(facet)) {
+            for (int bucket = 0; bucket <= priceEdges.size(); bucket++) {
+                RoaringBitmap bitmap = bitmaps.get(PRICE).get(bucketKey(bucket));
+                int count = bitmap != null ? RoaringBitmap.andCardinality(base, bitmap) : 0;
+                if (count > 0) {
+                    counts.add(priceCount(bucket, count));
+                }
+            }
+            return counts;
+        }
+
+        bitmaps.get(facet).forEach((value, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(base, bitmap);
+            if (count > 0) {
+                counts.add(FacetCount.of(value, count));
+            }
+        });
+        counts.sort(Comparator.comparingLong(FacetCount::getCount).reversed()
+                .thenComparing(FacetCount::getValue));
+        return counts;
+    }
+
+    private void removeFrom(String facet, String value, int doc) {
+        if (value == null) {
+            return;
+        }
+        RoaringBitmap bitmap = bitmaps.get(facet).get(value);
+        if (bitmap != null) {
+            bitmap.remove(doc);
+            if (bitmap.isEmpty()) {
+                bitmaps.get(facet).remove(value);
+            }
+        }
+    }
+
+    private String priceBucket(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < priceEdges.size() && price.compareTo(priceEdges.get(bucket)) >= 0) {
+            bucket++;
+        }
+        return bucketKey(bucket);
+    }
+
+    private String bucketKey(int bucket) {
+        return "bucket-" + bucket;
+    }
+
+    private FacetCount priceCount(int bucket, int count) {
+        BigDecimal min = bucket == 0 ? BigDecimal.ZERO : priceEdges.get(bucket - 1);
+        BigDecimal max = bucket == priceEdges.size() ? null : priceEdges.get(bucket).subtract(CENT);
+
+        String label;
+        if (priceEdges.isEmpty()) {
+            label = "Any price";
+        } else if (bucket == 0) {
+            label = "Under R" + priceEdges.get(0).toPlainString();
+        } else if (max == null) {
+            label = "R" + min.toPlainString() + "+";
+        } else {
+            label = "R" + min.toPlainString() + " - R" + priceEdges.get(bucket).toPlainString();
+        }
+        return new FacetCount(bucketKey(bucket), label, count, min, max);
+    }
+}
@@ -0,0 +1,158 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Term to posting-list index with Okapi BM25 scoring. Documents are
+ * addressed by dense int ordinals assigned by the caller.
+ *
+ * Not thread-safe; {@link ProductSearchIndex} guards it with its lock.
+ */
+final class InvertedIndex {
+
+    private final double k1;
+    private final double b;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final List<String[]> docTerms = new ArrayList<>();
+    private int[] docLengths = new int[64];
+    private long totalLength;
+    private int docCount;
+
+    InvertedIndex(double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /**
+     * Index a document. {@code termFreqs} holds the (already field-weighted)
+     * frequency of each term and {@code length} the weighted document length.
+     */
+    void add(int doc, Map<String, Integer> termFreqs, int length) {
+        remove(doc);
+
+        for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new PostingList()).add(doc, entry.getValue());
+        }
+
+        while (docTerms.size() <= doc) {
+            docTerms.add(null);
+        }
+        docTerms.set(doc, termFreqs.keySet().toArray(new String[0]));
+        if (doc >= docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, Math.max(doc + 1, docLengths.length * 2));
+        }
+        docLengths[doc] = length;
+        totalLength += length;
+        docCount++;
+    }
+
+    void remove(int doc) {
+        if (doc >= docTerms.size() || docTerms.get(doc) == null) {
+            return;
+        }
+
+        for (String term : docTerms.get(doc)) {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                list.remove(doc);
+                if (list.size() == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+        docTerms.set(doc, null);
+        totalLength -= docLengths[doc];
+        docLengths[doc] = 0;
+        docCount--;
+    }
+
+    /**
+     * Conjunctive (AND) query: returns every document containing all terms,
+     * with its BM25 score.
+     */
+    Matches search(List<String> terms) {
+        if (terms.isEmpty() || docCount == 0) {
+            return Matches.EMPTY;
+        }
+
+        List<PostingList> lists = new ArrayList<>(terms.size());
+        for (String term : terms.stream().distinct().toList()) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return Matches.EMPTY;
+            }
+            lists.add(list);
+        }
+        // Drive the intersection from the rarest term
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        double[] idf = new double[lists.size()];
+        for (int t = 0; t < lists.size(); t++) {
+            int df = lists.get(t).size();
+            idf[t] = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+        }
+        double avgLength = (double) totalLength / docCount;
+
+        PostingList lead = lists.get(0);
+        int[] docs = new int[lead.size()];
+        double[] scores = new double[lead.size()];
+        int[] cursors = new int[lists.size()];
+        int found = 0;
+
+        candidates:
+        for (int i = 0; i < lead.size(); i++) {
+            int doc = lead.doc(i);
+            double norm = k1 * (1 - b + b * docLengths[doc] / avgLength);
+            double score = 0;
+
+            for (int t = 0; t < lists.size(); t++) {
+                PostingList list = lists.get(t);
+                int pos = t == 0 ? i : list.seek(doc, cursors[t]);
+                if (pos < 0) {
+                    cursors[t] = -pos - 1;
+                    continue candidates;
+                }
+                cursors[t] = pos;
+                int tf = list.freq(pos);
+                score += idf[t] * tf * (k1 + 1) / (tf + norm);
+            }
+
+            docs[found] = doc;
+            scores[found] = score;
+            found++;
+        }
+        return new Matches(docs, scores, found);
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Matching doc ordinals with their scores, in ascending ordinal order.
+     */
+    static final class Matches {
+
+        static final Matches EMPTY = new Matches(new int[0], new double[0], 0);
+
+        final int[] docs;
+        final double[] scores;
+        final int size;
+
+        Matches(int[] docs, double[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+    }
+}
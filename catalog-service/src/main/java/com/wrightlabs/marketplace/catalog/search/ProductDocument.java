@@ -0,0 +1,67 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductTag;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the searchable parts of a {@link Product}. Taken
+ * inside the writing transaction so index updates never touch lazy
+ * associations after commit.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ProductDocument {
+
+    Long id;
+    Product.ProductStatus status;
+    String title;
+    String subtitle;
+    String description;
+    BigDecimal price;
+    LocalDateTime createdAt;
+    int purchases;
+    BigDecimal averageRating;
+    String grade;
+    String subject;
+    String resourceType;
+    Set<String> tags;
+
+    public boolean isPublished() {
+        return status == Product.ProductStatus.PUBLISHED;
+    }
+
+    public static ProductDocument from(Product product) {
+        Map<String, Object> metadata = product.getMetadata() != null ? product.getMetadata() : Map.of();
+
+        return ProductDocument.builder()
+                .id(product.getId())
+                .status(product.getStatus())
+                .title(product.getTitle())
+                .subtitle(product.getSubtitle())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .createdAt(product.getCreatedAt())
+                .purchases(product.getPurchases() != null ? product.getPurchases() : 0)
+                .averageRating(product.getAverageRating() != null ? product.getAverageRating() : BigDecimal.ZERO)
+                .grade(metadataValue(metadata, "grade"))
+                .subject(metadataValue(metadata, "subject"))
+                .resourceType(metadataValue(metadata, "resourceType"))
+                .tags(product.getTags().stream()
+                        .map(ProductTag::getTag)
+                        .collect(Collectors.toUnmodifiableSet()))
+                .build();
+    }
+
+    private static String metadataValue(Map<String, Object> metadata, String key) {
+        Object value = metadata.get(key);
+        return value != null ? value.toString() : null;
+    }
+}
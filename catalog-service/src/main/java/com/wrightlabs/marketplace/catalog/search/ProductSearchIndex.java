@@ -0,0 +1,409 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import com.wrightlabs.marketplace.catalog.config.SearchProperties;
+import com.wrightlabs.marketplace.catalog.dto.FacetCount;
+import com.wrightlabs.marketplace.catalog.dto.ProductSearchCriteria;
+import com.wrightlabs.marketplace.catalog.event.ProductChangedEvent;
+import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.Tag;
+import com.wrightlabs.marketplace.domain.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process full-text and facet index over published products. Built from
+ * the database on startup and kept current from {@link ProductChangedEvent}s,
+ * so searches and facet counts are answered from memory and only the
+ * requested page of products is loaded from Postgres.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUBTITLE_WEIGHT = 2;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final String TAGS = "tags";
+
+    private final ProductRepository productRepository;
+    private final SearchProperties searchProperties;
+    private final TextAnalyzer analyzer = new TextAnalyzer();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<ProductDocument> documents = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private InvertedIndex textIndex;
+    private FacetIndex facetIndex;
+    private TagIndex tagIndex;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository, SearchProperties searchProperties) {
+        this.productRepository = productRepository;
+        this.searchProperties = searchProperties;
+        this.textIndex = newTextIndex();
+        this.facetIndex = newFacetIndex();
+        this.tagIndex = new TagIndex();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!searchProperties.isIndexEnabled()) {
+            log.info("Search index disabled, keyword search will use the database");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            ordinals.clear();
+            documents.clear();
+            freeOrdinals.clear();
+            textIndex = newTextIndex();
+            facetIndex = newFacetIndex();
+            tagIndex = new TagIndex();
+
+            Pageable pageable = PageRequest.of(0, searchProperties.getIndexBatchSize(), Sort.by("id"));
+            Page<Product> batch;
+            do {
+                batch = productRepository.findByStatus(Product.ProductStatus.PUBLISHED, pageable);
+                batch.forEach(product -> put(ProductDocument.from(product)));
+                pageable = batch.nextPageable();
+            } while (batch.hasNext());
+
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Built search index: {} products, {} terms, {} tags in {} ms",
+                textIndex.docCount(), textIndex.termCount(), tagIndex.tagCount(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!searchProperties.isIndexEnabled()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted() || !event.getDocument().isPublished()) {
+                remove(event.getProductId());
+            } else {
+                put(event.getDocument());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * All published products matching the criteria, in result order, and
+     * optionally the facet counts for that result. Keyword matches are ranked
+     * by BM25 unless an explicit sort is requested.
+     */
+    public SearchResult search(ProductSearchCriteria criteria, boolean withFacets) {
+        List<String> terms = analyzer.analyze(criteria.getKeyword());
+
+        lock.readLock().lock();
+        try {
+            InvertedIndex.Matches matches = terms.isEmpty() ? null : textIndex.search(terms);
+            RoaringBitmap candidates = matches == null ? facetIndex.allDocs() : docsOf(matches);
+
+            Map<String, RoaringBitmap> filters = filters(criteria, candidates);
+            RoaringBitmap result = intersect(candidates, filters, null);
+
+            List<Hit> hits = hits(matches, result, sortOf(criteria.getSortBy(), matches != null));
+            List<Long> ids = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                ids.add(hit.id);
+            }
+
+            Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+            if (withFacets) {
+                // Each facet is counted without its own filter so the other values stay selectable
+                for (String facet : List.of(FacetIndex.GRADE, FacetIndex.SUBJECT,
+                        FacetIndex.RESOURCE_TYPE, FacetIndex.PRICE)) {
+                    RoaringBitmap base = filters.containsKey(facet) ? intersect(candidates, filters, facet) : result;
+                    facets.put(facet, facetIndex.counts(facet, base));
+                }
+            }
+            return new SearchResult(ids, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} of the products {@link #search} lists for a keyword,
+     * starting after the product with sort key {@code afterKey} and id
+     * {@code afterId}, or from the top when {@code afterId} is null. Seeking
+     * on the key rather than an offset means products leaving the result
+     * never move a later page back. The key is the BM25 score when ranking
+     * by relevance, the sorted field otherwise.
+     */
+    public SearchSlice searchAfter(ProductSearchCriteria criteria, Comparable<?> afterKey, Long afterId, int limit) {
+        List<String> terms = analyzer.analyze(criteria.getKeyword());
+        // A keyword of only stop words still sorts by relevance, with every score zero
+        String sort = sortOf(criteria.getSortBy(), true);
+
+        lock.readLock().lock();
+        try {
+            InvertedIndex.Matches matches = terms.isEmpty() ? null : textIndex.search(terms);
+            RoaringBitmap candidates = matches == null ? facetIndex.allDocs() : docsOf(matches);
+            RoaringBitmap result = intersect(candidates, filters(criteria, candidates), null);
+            List<Hit> hits = hits(matches, result, sort);
+
+            int from = 0;
+            if (afterId != null) {
+                int position = Collections.binarySearch(hits, new Hit(afterId, afterKey), ordering(sort));
+                from = position >= 0 ? position + 1 : -position - 1;
+            }
+            int to = Math.min(from + limit, hits.size());
+
+            List<Long> ids = new ArrayList<>(to - from);
+            for (Hit hit : hits.subList(from, to)) {
+                ids.add(hit.id);
+            }
+            Comparable<?> lastKey = to > from ? hits.get(to - 1).key : null;
+            return new SearchSlice(ids, lastKey, to < hits.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of published products matching the criteria: the cardinality
+     * of the filtered bitmap, without ranking, sorting or listing them.
+     */
+    public long count(ProductSearchCriteria criteria) {
+        List<String> terms = analyzer.analyze(criteria.getKeyword());
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = terms.isEmpty() ? facetIndex.allDocs() : docsOf(textIndex.search(terms));
+            Map<String, RoaringBitmap> filters = filters(criteria, candidates);
+            if (filters.isEmpty()) {
+                return candidates.getLongCardinality();
+            }
+            if (filters.size() == 1) {
+                return RoaringBitmap.andCardinality(candidates, filters.values().iterator().next());
+            }
+            return intersect(candidates, filters, null).getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(ProductDocument document) {
+        Integer ordinal = ordinals.get(document.getId());
+        if (ordinal == null) {
+            ordinal = freeOrdinals.isEmpty() ? documents.size() : freeOrdinals.pop();
+            ordinals.put(document.getId(), ordinal);
+        }
+
+        Map<String, Integer> termFreqs = new HashMap<>();
+        int length = addTerms(termFreqs, document.getTitle(), TITLE_WEIGHT)
+                + addTerms(termFreqs, document.getSubtitle(), SUBTITLE_WEIGHT)
+                + addTerms(termFreqs, document.getDescription(), DESCRIPTION_WEIGHT);
+        for (String tag : document.getTags()) {
+            length += addTerms(termFreqs, tag, TAG_WEIGHT);
+        }
+        textIndex.add(ordinal, termFreqs, length);
+
+        if (ordinal < documents.size() && documents.get(ordinal) != null) {
+            facetIndex.remove(ordinal, documents.get(ordinal));
+            tagIndex.remove(ordinal, documents.get(ordinal).getTags());
+        }
+        facetIndex.add(ordinal, document);
+        tagIndex.add(ordinal, document.getTags());
+
+        // The description is only needed for term extraction, don't keep it resident
+        ProductDocument stored = document.toBuilder().description(null).build();
+        if (ordinal == documents.size()) {
+            documents.add(stored);
+        } else {
+            documents.set(ordinal, stored);
+        }
+    }
+
+    private void remove(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        textIndex.remove(ordinal);
+        facetIndex.remove(ordinal, documents.get(ordinal));
+        tagIndex.remove(ordinal, documents.get(ordinal).getTags());
+        documents.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    private int addTerms(Map<String, Integer> termFreqs, String text, int weight) {
+        List<String> terms = analyzer.analyze(text);
+        for (String term : terms) {
+            termFreqs.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    /**
+     * Bitmap per active filter, keyed by facet name. The tag filter is never
+     * excluded when counting, as tags aren't shown as a facet.
+     */
+    private Map<String, RoaringBitmap> filters(ProductSearchCriteria criteria, RoaringBitmap candidates) {
+        Map<String, RoaringBitmap> filters = new LinkedHashMap<>();
+        addFacetFilter(filters, FacetIndex.GRADE, criteria.getGrade());
+        addFacetFilter(filters, FacetIndex.SUBJECT, criteria.getSubject());
+        addFacetFilter(filters, FacetIndex.RESOURCE_TYPE, criteria.getResourceType());
+
+        Set<String> tags = Tag.canonicalNames(criteria.getTags());
+        if (!tags.isEmpty()) {
+            filters.put(TAGS, criteria.isMatchAnyTag() ? tagIndex.docsWithAny(tags) : tagIndex.docsWithAll(tags));
+        }
+
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            // Arbitrary ranges don't line up with the buckets, so check the candidates directly
+            RoaringBitmap inRange = new RoaringBitmap();
+            IntIterator it = candidates.getIntIterator();
+            while (it.hasNext()) {
+                int ordinal = it.next();
+                if (inPriceRange(documents.get(ordinal), criteria)) {
+                    inRange.add(ordinal);
+                }
+            }
+            filters.put(FacetIndex.PRICE, inRange);
+        }
+        return filters;
+    }
+
+    private void addFacetFilter(Map<String, RoaringBitmap> filters, String facet, String value) {
+        if (value != null && !value.isBlank()) {
+            filters.put(facet, facetIndex.docsWith(facet, value));
+        }
+    }
+
+    private static RoaringBitmap docsOf(InvertedIndex.Matches matches) {
+        RoaringBitmap docs = new RoaringBitmap();
+        for (int i = 0; i < matches.size; i++) {
+            docs.add(matches.docs[i]);
+        }
+        return docs;
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap candidates, Map<String, RoaringBitmap> filters,
+            String excludedFacet) {
+        RoaringBitmap result = candidates.clone();
+        filters.forEach((facet, bitmap) -> {
+            if (!facet.equals(excludedFacet)) {
+                result.and(bitmap);
+            }
+        });
+        return result;
+    }
+
+    private static boolean inPriceRange(ProductDocument document, ProductSearchCriteria criteria) {
+        if (criteria.getMinPrice() != null && document.getPrice().compareTo(criteria.getMinPrice()) < 0) {
+            return false;
+        }
+        return criteria.getMaxPrice() == null || document.getPrice().compareTo(criteria.getMaxPrice()) <= 0;
+    }
+
+    /**
+     * The result's hits, each with its key under {@code sort}, in result order.
+     */
+    private List<Hit> hits(InvertedIndex.Matches matches, RoaringBitmap result, String sort) {
+        List<Hit> hits = new ArrayList<>(result.getCardinality());
+        if (matches == null) {
+            IntIterator it = result.getIntIterator();
+            while (it.hasNext()) {
+                ProductDocument document = documents.get(it.next());
+                hits.add(new Hit(document.getId(), sortKey(sort, document, 0)));
+            }
+        } else {
+            for (int i = 0; i < matches.size; i++) {
+                if (result.contains(matches.docs[i])) {
+                    ProductDocument document = documents.get(matches.docs[i]);
+                    hits.add(new Hit(document.getId(), sortKey(sort, document, matches.scores[i])));
+                }
+            }
+        }
+        hits.sort(ordering(sort));
+        return hits;
+    }
+
+    private static String sortOf(String sortBy, boolean ranked) {
+        if (sortBy != null && !sortBy.isBlank()) {
+            String sort = sortBy.toLowerCase();
+            if (List.of("price_asc", "price_desc", "popularity", "rating", "newest").contains(sort)) {
+                return sort;
+            }
+            return "relevance";
+        }
+        return ranked ? "relevance" : "newest";
+    }
+
+    private static Comparable<?> sortKey(String sort, ProductDocument document, double score) {
+        return switch (sort) {
+            case "price_asc", "price_desc" -> document.getPrice();
+            case "popularity" -> document.getPurchases();
+            case "rating" -> document.getAverageRating();
+            case "newest" -> document.getCreatedAt();
+            default -> score; // relevance
+        };
+    }
+
+    /**
+     * Hits by key, ascending only for price_asc, missing keys last, then by
+     * id descending.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Comparator<Hit> ordering(String sort) {
+        Comparator<Comparable> keys = "price_asc".equals(sort)
+                ? Comparator.nullsLast(Comparator.<Comparable>naturalOrder())
+                : Comparator.nullsLast(Comparator.<Comparable>reverseOrder());
+        return Comparator.comparing((Hit hit) -> (Comparable) hit.key, keys)
+                .thenComparing((Hit hit) -> hit.id, Comparator.reverseOrder());
+    }
+
+    private InvertedIndex newTextIndex() {
+        return new InvertedIndex(searchProperties.getBm25K1(), searchProperties.getBm25B());
+    }
+
+    private FacetIndex newFacetIndex() {
+        return new FacetIndex(searchProperties.getPriceBucketEdges());
+    }
+
+    private static final class Hit {
+        private final long id;
+        private final Comparable<?> key;
+
+        private Hit(long id, Comparable<?> key) {
+            this.id = id;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import com.wrightlabs.marketplace.catalog.dto.FacetCount;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+@Value
+public class SearchResult {
+
+    /**
+     * Every matching product id, in result order.
+     */
+    List<Long> productIds;
+
+    /**
+     * Facet counts, empty unless requested.
+     */
+    Map<String, List<FacetCount>> facets;
+}
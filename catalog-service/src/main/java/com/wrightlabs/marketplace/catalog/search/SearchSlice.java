@@ -0,0 +1,25 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class SearchSlice {
+
+    /**
+     * The slice's product ids, in result order.
+     */
+    List<Long> productIds;
+
+    /**
+     * Sort key of the slice's last product, to seek the next slice from;
+     * null when the slice is empty.
+     */
+    Comparable<?> lastKey;
+
+    /**
+     * Whether more products follow the slice.
+     */
+    boolean hasNext;
+}
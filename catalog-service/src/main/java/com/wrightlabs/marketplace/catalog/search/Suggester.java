@@ -0,0 +1,158 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import com.wrightlabs.marketplace.catalog.dto.Suggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Immutable prefix index over suggestion texts. Keys are kept in one sorted
+ * array, so a prefix is a binary-searched range. Small ranges are scanned
+ * for the heaviest entries; for every prefix whose range is larger than
+ * {@link #SCAN_LIMIT} the best entries are precomputed at build time, which
+ * bounds the work per lookup regardless of catalogue size.
+ */
+final class Suggester {
+
+    static final Suggester EMPTY = new Suggester(List.of(), 0);
+
+    private static final int SCAN_LIMIT = 256;
+
+    private final String[] keys;
+    private final Suggestion[] suggestions;
+    private final long[] weights;
+    private final int depth;
+    private final Map<String, int[]> precomputed = new HashMap<>();
+
+    /**
+     * @param depth number of best entries kept per precomputed prefix, the
+     *              largest limit a lookup can ask for
+     */
+    Suggester(List<Entry> entries, int depth) {
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.sort(sorted, (a, b) -> a.key.compareTo(b.key));
+
+        this.keys = new String[sorted.length];
+        this.suggestions = new Suggestion[sorted.length];
+        this.weights = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key;
+            suggestions[i] = sorted[i].suggestion;
+            weights[i] = sorted[i].weight;
+        }
+        this.depth = depth;
+        precompute(0, keys.length, 0);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Heaviest suggestions starting with the prefix that pass the filter,
+     * heaviest first. Filtered-out entries can leave the result short.
+     */
+    List<Suggestion> lookup(String prefix, int limit, Predicate<Suggestion> filter) {
+        String key = normalize(prefix);
+        List<Suggestion> result = new ArrayList<>(limit);
+        if (key.isEmpty() || keys.length == 0) {
+            return result;
+        }
+
+        int lo = lowerBound(key);
+        int hi = lowerBound(key + Character.MAX_VALUE);
+        int[] best = hi - lo > SCAN_LIMIT ? precomputed.get(key) : top(lo, hi, depth);
+        if (best == null) {
+            return result;
+        }
+        for (int i = 0; i < best.length && result.size() < limit; i++) {
+            if (filter.test(suggestions[best[i]])) {
+                result.add(suggestions[best[i]]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Walk the ranges sharing each successively longer prefix and store the
+     * best entries of every range too large to scan.
+     */
+    private void precompute(int lo, int hi, int prefixLength) {
+        int i = lo;
+        while (i < hi) {
+            if (keys[i].length() <= prefixLength) {
+                i++;
+                continue;
+            }
+            char c = keys[i].charAt(prefixLength);
+            int j = i + 1;
+            while (j < hi && keys[j].length() > prefixLength && keys[j].charAt(prefixLength) == c) {
+                j++;
+            }
+            if (j - i > SCAN_LIMIT) {
+                precomputed.put(keys[i].substring(0, prefixLength + 1), top(i, j, depth));
+                precompute(i, j, prefixLength + 1);
+            }
+            i = j;
+        }
+    }
+
+    /**
+     * Indexes of the {@code n} heaviest entries in [lo, hi), heaviest first.
+     */
+    private int[] top(int lo, int hi, int n) {
+        int[] best = new int[Math.min(n, hi - lo)];
+        int size = 0;
+        for (int i = lo; i < hi; i++) {
+            if (size < best.length) {
+                best[size++] = i;
+            } else if (weights[i] > weights[best[size - 1]]) {
+                best[size - 1] = i;
+            } else {
+                continue;
+            }
+            // Insertion step keeps the small array ordered by weight
+            for (int k = size - 1; k > 0 && weights[best[k]] > weights[best[k - 1]]; k--) {
+                int tmp = best[k];
+                best[k] = best[k - 1];
+                best[k - 1] = tmp;
+            }
+        }
+        return best;
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static final class Entry {
+        private final String key;
+        private final Suggestion suggestion;
+        private final long weight;
+
+        Entry(Suggestion suggestion, long weight) {
+            this.key = normalize(suggestion.getText());
+            this.suggestion = suggestion;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.wrightlabs.marketplace.catalog.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tag dictionary (canonical name to a dense tag ordinal) with a posting list
+ * of doc ordinals per tag. Multi-tag filters intersect or union the posting
+ * lists, smallest first, instead of joining product_tags once per tag.
+ *
+ * Not thread-safe; {@link ProductSearchIndex} guards it with its lock.
+ */
+final class TagIndex {
+
+    private final Map<String, Integer> tagOrdinals = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<RoaringBitmap> postings = new ArrayList<>();
+
+    void add(int doc, Collection<String> tags) {
+        for (String tag : tags) {
+            Integer ordinal = tagOrdinals.get(tag);
+            if (ordinal == null) {
+                ordinal = names.size();
+                tagOrdinals.put(tag, ordinal);
+                names.add(tag);
+                postings.add(new RoaringBitmap());
+            }
+            postings.get(ordinal).add(doc);
+        }
+    }
+
+    void remove(int doc, Collection<String> tags) {
+        // Ordinals are never reused, an emptied posting list simply stays empty
+        for (String tag : tags) {
+            Integer ordinal = tagOrdinals.get(tag);
+            if (ordinal != null) {
+                postings.get(ordinal).remove(doc);
+            }
+        }
+    }
+
+    int tagCount() {
+        return names.size();
+    }
+
+    /**
+     * Docs tagged with every one of the given canonical tags.
+     */
+    RoaringBitmap docsWithAll(Collection<String> tags) {
+        List<RoaringBitmap> lists = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            Integer ordinal = tagOrdinals.get(tag);
+            if (ordinal == null) {
+                return new RoaringBitmap();
+            }
+            lists.add(postings.get(ordinal));
+        }
+        if (lists.isEmpty()) {
+            return new RoaringBitmap();
+        }
+
+        // Rarest first keeps every intermediate result as small as possible
+        lists.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap result = lists.get(0).clone();
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.and(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Docs tagged with at least one of the given canonical tags.
+     */
+    RoaringBitmap docsWithAny(Collection<String> tags) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (String tag : tags) {
+            Integer ordinal = tagOrdinals.get(tag);
+            if (ordinal != null) {
+                result.or(postings.get(ordinal));
+            }
+        }
+        return result;
+    }
+}
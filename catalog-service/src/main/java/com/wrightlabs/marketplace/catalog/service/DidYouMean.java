@@ -0,0 +1,96 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Builds a "did you mean" correction for a query from the text of products
+ * the trigram search found similar: each query word is replaced by the
+ * closest word in that text, if it is within a small edit distance.
+ */
+final class DidYouMean {
+
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private DidYouMean() {
+    }
+
+    static Optional<String> suggest(String query, List<String> candidateTexts) {
+        Set<String> vocabulary = new LinkedHashSet<>();
+        for (String text : candidateTexts) {
+            vocabulary.addAll(words(text));
+        }
+
+        List<String> corrected = new ArrayList<>();
+        boolean changed = false;
+        for (String word : words(query)) {
+            String best = word;
+            if (word.length() >= MIN_WORD_LENGTH && !vocabulary.contains(word)) {
+                int bestDistance = maxDistance(word) + 1;
+                for (String candidate : vocabulary) {
+                    int distance = editDistance(word, candidate, bestDistance);
+                    if (distance < bestDistance) {
+                        best = candidate;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            changed |= !best.equals(word);
+            corrected.add(best);
+        }
+        return changed ? Optional.of(String.join(" ", corrected)) : Optional.empty();
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text != null) {
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static int maxDistance(String word) {
+        return word.length() <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Damerau-Levenshtein (optimal string alignment) distance, so a swapped
+     * pair like "fractoins" counts as one edit. Gives up early once every
+     * path exceeds {@code limit}.
+     */
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) >= limit) {
+            return limit;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin >= limit) {
+                return limit;
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
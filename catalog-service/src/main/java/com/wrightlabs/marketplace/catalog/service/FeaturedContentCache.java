@@ -0,0 +1,106 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.catalog.config.FeaturedProperties;
+import com.wrightlabs.marketplace.catalog.dto.FeaturedRails;
+import com.wrightlabs.marketplace.catalog.event.ProductChangedEvent;
+import com.wrightlabs.marketplace.domain.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputed homepage rails (bestsellers, newest, top rated). Rebuilt in
+ * the background on a fixed schedule, and shortly after products change,
+ * so homepage requests read an immutable snapshot without touching the
+ * database.
+ */
+@Component
+@Slf4j
+public class FeaturedContentCache {
+
+    private final ProductRepository productRepository;
+    private final FeaturedProperties featuredProperties;
+    private final Timer refreshTimer;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private volatile FeaturedRails rails;
+
+    public FeaturedContentCache(ProductRepository productRepository, FeaturedProperties featuredProperties,
+            MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.featuredProperties = featuredProperties;
+        this.refreshTimer = Timer.builder("featured.rails.refresh")
+                .description("Time to rebuild the homepage rails")
+                .register(meterRegistry);
+        Gauge.builder("featured.rails.staleness", this, FeaturedContentCache::stalenessSeconds)
+                .description("Seconds since the homepage rails were rebuilt")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current rails; built on the calling thread only if no snapshot exists yet.
+     */
+    public FeaturedRails getRails() {
+        FeaturedRails current = rails;
+        return current != null ? current : refresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${featured.refresh-interval:PT5M}",
+            initialDelayString = "${featured.refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        changed.set(false);
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${featured.change-refresh-delay:PT30S}")
+    public void refreshIfChanged() {
+        // Coalesces bursts of product changes into one rebuild
+        if (changed.compareAndSet(true, false)) {
+            refresh();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changed.set(true);
+    }
+
+    public synchronized FeaturedRails refresh() {
+        long start = System.nanoTime();
+        PageRequest top = PageRequest.of(0, featuredProperties.getRailSize());
+        FeaturedRails refreshed = new FeaturedRails(
+                List.copyOf(productRepository.findBestsellerCards(top)),
+                List.copyOf(productRepository.findNewestCards(top)),
+                List.copyOf(productRepository.findTopRatedCards(top)),
+                Instant.now());
+        rails = refreshed;
+
+        long elapsed = System.nanoTime() - start;
+        refreshTimer.record(Duration.ofNanos(elapsed));
+        log.debug("Refreshed featured rails in {} ms", Duration.ofNanos(elapsed).toMillis());
+        return refreshed;
+    }
+
+    private double stalenessSeconds() {
+        FeaturedRails current = rails;
+        return current != null ? Duration.between(current.getRefreshedAt(), Instant.now()).toMillis() / 1000.0 : 0;
+    }
+}
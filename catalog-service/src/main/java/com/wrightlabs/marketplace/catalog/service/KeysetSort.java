@@ -0,0 +1,89 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.domain.entity.Product;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Sort orders supported by keyset pagination, each one key with {@code id}
+ * as tie-breaker. Newest and price are product columns matching the
+ * composite status indexes; popularity and rating are sorted and sought on
+ * the product_counters and product_rating_stats tables joined by product
+ * id, whose (value, product_id) indexes match. Relevance only orders
+ * keyword searches answered by the search index, seeking on the BM25 score;
+ * it has no column to sort on.
+ */
+enum KeysetSort {
+
+    NEWEST("createdAt", Sort.Direction.DESC, Product::getCreatedAt, LocalDateTime::parse),
+    PRICE_ASC("price", Sort.Direction.ASC, Product::getPrice, BigDecimal::new),
+    PRICE_DESC("price", Sort.Direction.DESC, Product::getPrice, BigDecimal::new),
+    POPULARITY("purchases", Sort.Direction.DESC, Product::getPurchases, Integer::valueOf),
+    RATING("averageRating", Sort.Direction.DESC, Product::getAverageRating, BigDecimal::new),
+    RELEVANCE(null, Sort.Direction.DESC, null, Double::valueOf);
+
+    private final String attribute;
+    private final Sort.Direction direction;
+    private final Function<Product, Comparable<?>> keyExtractor;
+    private final Function<String, Comparable<?>> keyParser;
+
+    KeysetSort(String attribute, Sort.Direction direction,
+            Function<Product, Comparable<?>> keyExtractor, Function<String, Comparable<?>> keyParser) {
+        this.attribute = attribute;
+        this.direction = direction;
+        this.keyExtractor = keyExtractor;
+        this.keyParser = keyParser;
+    }
+
+    static KeysetSort from(String sortBy) {
+        if (sortBy == null) {
+            return NEWEST;
+        }
+        return switch (sortBy.toLowerCase()) {
+            case "price_asc" -> PRICE_ASC;
+            case "price_desc" -> PRICE_DESC;
+            case "popularity" -> POPULARITY;
+            case "rating" -> RATING;
+            default -> NEWEST;
+        };
+    }
+
+    /**
+     * The order of a keyword search answered by the search index, which
+     * ranks by relevance unless another supported sort is asked for.
+     */
+    static KeysetSort forKeyword(String sortBy) {
+        if (sortBy == null) {
+            return RELEVANCE;
+        }
+        return switch (sortBy.toLowerCase()) {
+            case "price_asc" -> PRICE_ASC;
+            case "price_desc" -> PRICE_DESC;
+            case "popularity" -> POPULARITY;
+            case "rating" -> RATING;
+            case "newest" -> NEWEST;
+            default -> RELEVANCE;
+        };
+    }
+
+    /**
+     * The key's order; the repository adds {@code id} as tie-breaker.
+     */
+    Sort.Order toOrder() {
+        if (attribute == null) {
+            throw new IllegalStateException(name() + " has no column to sort on");
+        }
+        return new Sort.Order(direction, attribute);
+    }
+
+    Comparable<?> keyOf(Product product) {
+        return keyExtractor.apply(product);
+    }
+
+    Comparable<?> parseKey(String key) {
+        return keyParser.apply(key);
+    }
+}
@@ -0,0 +1,83 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.catalog.dto.ProductSearchCriteria;
+import com.wrightlabs.marketplace.domain.entity.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estimates the number of published products matching search criteria from
+ * the Postgres planner's row estimate, which costs a plan but no scan.
+ * The WHERE clause mirrors {@code ProductService.buildSearchSpecification}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCountEstimator {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\"\\s*:\\s*(\\d+)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Planner row estimate, or -1 if none could be obtained.
+     */
+    public long estimate(ProductSearchCriteria criteria) {
+        StringBuilder sql = new StringBuilder(
+                "EXPLAIN (FORMAT JSON) SELECT 1 FROM products WHERE status = 'PUBLISHED'");
+        List<Object> args = new ArrayList<>();
+
+        if (StringUtils.hasText(criteria.getKeyword())) {
+            String likePattern = "%" + criteria.getKeyword().toLowerCase() + "%";
+            sql.append(" AND (lower(title) LIKE ? OR lower(subtitle) LIKE ? OR lower(description) LIKE ?)");
+            args.add(likePattern);
+            args.add(likePattern);
+            args.add(likePattern);
+        }
+        if (criteria.getMinPrice() != null) {
+            sql.append(" AND price >= ?");
+            args.add(criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            sql.append(" AND price <= ?");
+            args.add(criteria.getMaxPrice());
+        }
+        String metadataFilter = ProductService.metadataFilter(criteria);
+        if (metadataFilter != null) {
+            sql.append(" AND metadata @> CAST(? AS jsonb)");
+            args.add(metadataFilter);
+        }
+
+        Set<String> tags = Tag.canonicalNames(criteria.getTags());
+        if (!tags.isEmpty()) {
+            sql.append(" AND id IN (SELECT product_id FROM product_tags WHERE tag IN (")
+                    .append(String.join(", ", Collections.nCopies(tags.size(), "?")))
+                    .append(")");
+            if (!criteria.isMatchAnyTag()) {
+                sql.append(" GROUP BY product_id HAVING count(DISTINCT tag) = ").append(tags.size());
+            }
+            sql.append(")");
+            args.addAll(tags);
+        }
+
+        try {
+            String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, args.toArray());
+            Matcher matcher = PLAN_ROWS.matcher(plan != null ? plan : "");
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+        } catch (DataAccessException e) {
+            log.warn("Could not estimate product count: {}", e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.domain.entity.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated listing: the sort key and id of the last
+ * product on the previous page, encoded as an opaque URL-safe token.
+ */
+final class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final KeysetSort sort;
+    private final Comparable<?> key;
+    private final Long id;
+
+    private ProductCursor(KeysetSort sort, Comparable<?> key, Long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    static ProductCursor after(KeysetSort sort, Product last) {
+        return new ProductCursor(sort, sort.keyOf(last), last.getId());
+    }
+
+    static ProductCursor of(KeysetSort sort, Comparable<?> key, Long id) {
+        return new ProductCursor(sort, key, id);
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}. Returns null for a blank
+     * token, or one issued for a different sort, which restarts the listing.
+     */
+    static ProductCursor decode(String token, KeysetSort sort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 3);
+            if (!sort.name().equals(parts[0])) {
+                return null;
+            }
+            return new ProductCursor(sort, sort.parseKey(parts[1]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    String encode() {
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    KeysetSort getSort() {
+        return sort;
+    }
+
+    Comparable<?> getKey() {
+        return key;
+    }
+
+    Long getId() {
+        return id;
+    }
+}
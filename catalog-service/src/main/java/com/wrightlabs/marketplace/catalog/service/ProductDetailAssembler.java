@@ -0,0 +1,62 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.catalog.dto.ProductDetailView;
+import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductRatingStats;
+import com.wrightlabs.marketplace.domain.entity.Review;
+import com.wrightlabs.marketplace.domain.entity.SellerProfile;
+import com.wrightlabs.marketplace.domain.repository.ProductRepository;
+import com.wrightlabs.marketplace.domain.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Builds the product page in two read-only statements: the product with
+ * seller, files and rating stats, then the first page of reviews with their
+ * authors. The view is counted in memory and flushed later by
+ * {@link ViewCountBuffer}, so the page never writes.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProductDetailAssembler {
+
+    private static final int REVIEW_PAGE_SIZE = 10;
+
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final ViewCountBuffer viewCountBuffer;
+
+    public ProductDetailView load(Long productId) {
+        List<Object[]> rows = productRepository.findDetailRows(productId);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Product not found: " + productId);
+        }
+
+        Product product = (Product) rows.get(0)[0];
+        ProductRatingStats stats = (ProductRatingStats) rows.get(0)[1];
+        if (stats == null) {
+            stats = ProductRatingStats.empty(productId);
+        }
+
+        // One row more than the page tells whether there are further reviews
+        List<Review> reviews = reviewRepository.findApprovedWithAuthors(productId,
+                PageRequest.of(0, REVIEW_PAGE_SIZE + 1));
+        boolean moreReviews = reviews.size() > REVIEW_PAGE_SIZE;
+
+        viewCountBuffer.record(productId);
+
+        SellerProfile profile = product.getSeller().getSellerProfile();
+        return new ProductDetailView(
+                product,
+                profile != null ? profile.getStoreName() : null,
+                List.copyOf(product.getFiles()),
+                stats,
+                moreReviews ? reviews.subList(0, REVIEW_PAGE_SIZE) : reviews,
+                moreReviews);
+    }
+}
@@ -1,15 +1,36 @@
 package com.wrightlabs.marketplace.catalog.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wrightlabs.marketplace.catalog.config.SearchProperties;
+import com.wrightlabs.marketplace.catalog.dto.CursorPage;
+import com.wrightlabs.marketplace.catalog.dto.FacetedSearchResult;
 import com.wrightlabs.marketplace.catalog.dto.ProductRequest;
 import com.wrightlabs.marketplace.catalog.dto.ProductSearchCriteria;
+import com.wrightlabs.marketplace.catalog.dto.SearchPage;
+import com.wrightlabs.marketplace.catalog.event.ProductChangedEvent;
+import com.wrightlabs.marketplace.catalog.search.ProductDocument;
+import com.wrightlabs.marketplace.catalog.search.ProductSearchIndex;
+import com.wrightlabs.marketplace.catalog.search.SearchResult;
+import com.wrightlabs.marketplace.catalog.search.SearchSlice;
+import com.wrightlabs.marketplace.domain.config.JsonbFunctionContributor;
+import com.wrightlabs.marketplace.domain.config.ProductStatusFunctionContributor;
 import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductCounters;
 import com.wrightlabs.marketplace.domain.entity.ProductTag;
+import com.wrightlabs.marketplace.domain.entity.Tag;
 import com.wrightlabs.marketplace.domain.entity.User;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
+import com.wrightlabs.marketplace.domain.repository.ProductCountersRepository;
+import com.wrightlabs.marketplace.domain.repository.ProductRatingStatsRepository;
 import com.wrightlabs.marketplace.domain.repository.ProductRepository;
 import com.wrightlabs.marketplace.domain.repository.ProductTagRepository;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -17,8 +38,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,25 +50,143 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductService {
 
+    private static final int DID_YOU_MEAN_CANDIDATES = 5;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
     private final ProductRepository productRepository;
     private final ProductTagRepository productTagRepository;
+    private final ProductCountersRepository productCountersRepository;
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+    private final TagDictionary tagDictionary;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCountEstimator productCountEstimator;
+    private final SearchProperties searchProperties;
+    private final ViewCountBuffer viewCountBuffer;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public List<ProductCard> getBestsellers(int limit) {
+        return productRepository.findBestsellerCards(PageRequest.of(0, limit));
+    }
 
-    public List<Product> getBestsellers(int limit) {
-        return productRepository.findBestsellers(PageRequest.of(0, limit));
+    public List<ProductCard> getNewest(int limit) {
+        return productRepository.findNewestCards(PageRequest.of(0, limit));
     }
 
-    public List<Product> getNewest(int limit) {
-        return productRepository.findNewest(PageRequest.of(0, limit));
+    public List<ProductCard> getTopRated(int limit) {
+        return productRepository.findTopRatedCards(PageRequest.of(0, limit));
     }
 
-    public List<Product> getTopRated(int limit) {
-        return productRepository.findTopRated(PageRequest.of(0, limit));
+    public SearchPage<ProductCard> searchProducts(ProductSearchCriteria criteria, Pageable pageable) {
+        SearchCacheKey key = SearchCacheKey.of(criteria, pageable);
+        SearchResultCache.Entry cached = searchResultCache.get(key);
+        if (cached != null) {
+            return new SearchPage<>(loadInOrder(cached.getProductIds()), pageable, cached.getTotal(),
+                    cached.isApproximate(), cached.getCountFloor());
+        }
+
+        long generation = searchResultCache.generation();
+        SearchPage<ProductCard> page = search(criteria, pageable);
+        searchResultCache.put(key, new SearchResultCache.Entry(
+                page.getContent().stream().map(ProductCard::getId).toList(),
+                page.getTotalElements(), page.isApproximate(), page.getCountFloor(), Map.of()), generation);
+        return page;
     }
 
-    public Page<Product> searchProducts(ProductSearchCriteria criteria, Pageable pageable) {
+    private SearchPage<ProductCard> search(ProductSearchCriteria criteria, Pageable pageable) {
+        // Keyword searches are answered by the in-memory index; only the page is loaded
+        if (criteria.getKeyword() != null && !criteria.getKeyword().isBlank() && productSearchIndex.isReady()) {
+            return loadPage(productSearchIndex.search(criteria, false).getProductIds(), pageable);
+        }
+
         Specification<Product> spec = buildSearchSpecification(criteria);
         Pageable sortedPageable = applySorting(criteria.getSortBy(), pageable);
-        return productRepository.findAll(spec, sortedPageable);
+        List<ProductCard> content = loadInOrder(productRepository.findIds(spec, sortedPageable));
+        return countResults(content, sortedPageable, spec, criteria);
+    }
+
+    /**
+     * Keyset-paginated search: each page continues after the cursor returned
+     * with the previous one, so deep pages cost the same as the first and no
+     * count query is issued.
+     */
+    public CursorPage<ProductCard> searchProductsAfter(ProductSearchCriteria criteria, String cursor, int size) {
+        if (criteria.getKeyword() != null && !criteria.getKeyword().isBlank() && productSearchIndex.isReady()) {
+            // The index seeks past the cursor's key itself and hands back the key of the last hit
+            KeysetSort keywordSort = KeysetSort.forKeyword(criteria.getSortBy());
+            ProductCursor keywordAfter = ProductCursor.decode(cursor, keywordSort);
+            SearchSlice slice = productSearchIndex.searchAfter(criteria,
+                    keywordAfter != null ? keywordAfter.getKey() : null,
+                    keywordAfter != null ? keywordAfter.getId() : null, size);
+            List<Long> ids = slice.getProductIds();
+            String nextCursor = slice.isHasNext() && !ids.isEmpty()
+                    ? ProductCursor.of(keywordSort, slice.getLastKey(), ids.get(ids.size() - 1)).encode()
+                    : null;
+            return new CursorPage<>(loadInOrder(ids), nextCursor);
+        }
+
+        KeysetSort sort = KeysetSort.from(criteria.getSortBy());
+        ProductCursor after = ProductCursor.decode(cursor, sort);
+        // Fetch one extra row to learn whether there is a next page
+        List<Long> ids = productRepository.findIdsAfter(buildSearchSpecification(criteria), sort.toOrder(),
+                after != null ? after.getKey() : null, after != null ? after.getId() : null, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        String nextCursor = hasNext && !pageIds.isEmpty()
+                ? productRepository.findById(pageIds.get(pageIds.size() - 1))
+                        .map(last -> ProductCursor.after(sort, last).encode())
+                        .orElse(null)
+                : null;
+        return new CursorPage<>(loadInOrder(pageIds), nextCursor);
+    }
+
+    /**
+     * One page of results plus grade/subject/resourceType/price facet counts,
+     * computed together from the search index and cached like plain pages.
+     */
+    public FacetedSearchResult searchWithFacets(ProductSearchCriteria criteria, Pageable pageable) {
+        if (!productSearchIndex.isReady()) {
+            return new FacetedSearchResult(searchProducts(criteria, pageable), Map.of());
+        }
+
+        SearchCacheKey key = SearchCacheKey.of(criteria, pageable, true);
+        SearchResultCache.Entry cached = searchResultCache.get(key);
+        if (cached != null) {
+            return new FacetedSearchResult(new SearchPage<>(loadInOrder(cached.getProductIds()), pageable,
+                    cached.getTotal()), cached.getFacets());
+        }
+
+        long generation = searchResultCache.generation();
+        SearchResult result = productSearchIndex.search(criteria, true);
+        SearchPage<ProductCard> page = loadPage(result.getProductIds(), pageable);
+        searchResultCache.put(key, new SearchResultCache.Entry(
+                page.getContent().stream().map(ProductCard::getId).toList(),
+                page.getTotalElements(), false, 0, result.getFacets()), generation);
+        return new FacetedSearchResult(page, result.getFacets());
+    }
+
+    /**
+     * Typo-tolerant lookup: published products with a title or subtitle word
+     * similar to the keyword, best match first.
+     */
+    public List<ProductCard> findSimilar(String keyword, int limit) {
+        if (!StringUtils.hasText(keyword)) {
+            return List.of();
+        }
+        return loadInOrder(productRepository.findSimilarIds(keyword.trim().toLowerCase(Locale.ROOT), limit));
+    }
+
+    /**
+     * Corrected spelling of a keyword that found nothing, taken from the
+     * products most similar to it.
+     */
+    public Optional<String> didYouMean(String keyword) {
+        List<String> texts = new ArrayList<>();
+        for (ProductCard card : findSimilar(keyword, DID_YOU_MEAN_CANDIDATES)) {
+            texts.add(card.getTitle());
+            texts.add(card.getSubtitle());
+        }
+        return DidYouMean.suggest(keyword, texts);
     }
 
     public Product getProductById(Long id) {
@@ -76,11 +217,11 @@ public class ProductService {
                 .currency(request.getCurrency())
                 .status(Product.ProductStatus.DRAFT)
                 .metadata(metadata)
-                .views(0)
-                .purchases(0)
                 .build();
 
         product = productRepository.save(product);
+        productCountersRepository.insertIfAbsent(product.getId());
+        productRatingStatsRepository.insertIfAbsent(product.getId());
         log.info("Created product: {} by seller: {}", product.getTitle(), seller.getEmail());
 
         // Add tags if provided
@@ -88,6 +229,7 @@ public class ProductService {
             addTags(product, request.getTags());
         }
 
+        eventPublisher.publishEvent(ProductChangedEvent.created(ProductDocument.from(product)));
         return product;
     }
 
@@ -99,6 +241,7 @@ public class ProductService {
         if (!product.getSeller().getId().equals(seller.getId())) {
             throw new IllegalArgumentException("You do not have permission to edit this product");
         }
+        ProductDocument previous = ProductDocument.from(product);
 
         product.setTitle(request.getTitle());
         product.setSubtitle(request.getSubtitle());
@@ -130,6 +273,7 @@ public class ProductService {
         product = productRepository.save(product);
         log.info("Updated product: {}", product.getTitle());
 
+        publishChange(previous, product);
         return product;
     }
 
@@ -140,10 +284,12 @@ public class ProductService {
         if (!product.getSeller().getId().equals(seller.getId())) {
             throw new IllegalArgumentException("You do not have permission to publish this product");
         }
+        ProductDocument previous = ProductDocument.from(product);
 
         product.setStatus(Product.ProductStatus.PUBLISHED);
         productRepository.save(product);
         log.info("Published product: {}", product.getTitle());
+        publishChange(previous, product);
     }
 
     @Transactional
@@ -153,24 +299,30 @@ public class ProductService {
         if (!product.getSeller().getId().equals(seller.getId())) {
             throw new IllegalArgumentException("You do not have permission to unpublish this product");
         }
+        ProductDocument previous = ProductDocument.from(product);
 
         product.setStatus(Product.ProductStatus.DRAFT);
         productRepository.save(product);
         log.info("Unpublished product: {}", product.getTitle());
+        publishChange(previous, product);
     }
 
-    @Transactional
     public void incrementViewCount(Long productId) {
-        Product product = getProductById(productId);
-        product.setViews(product.getViews() + 1);
-        productRepository.save(product);
+        viewCountBuffer.record(productId);
     }
 
     @Transactional
     public void incrementPurchaseCount(Long productId) {
         Product product = getProductById(productId);
-        product.setPurchases(product.getPurchases() + 1);
-        productRepository.save(product);
+        productCountersRepository.incrementPurchases(productId);
+
+        // The purchases formula on the loaded product predates the increment
+        int purchases = productCountersRepository.findById(productId)
+                .map(ProductCounters::getPurchases)
+                .orElse(0);
+        ProductDocument previous = ProductDocument.from(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(previous,
+                previous.toBuilder().purchases(purchases).build()));
     }
 
     public Page<Product> getSellerProducts(Long sellerId, Pageable pageable) {
@@ -184,16 +336,75 @@ public class ProductService {
         if (!product.getSeller().getId().equals(seller.getId())) {
             throw new IllegalArgumentException("You do not have permission to delete this product");
         }
+        ProductDocument previous = ProductDocument.from(product);
 
         productRepository.delete(product);
         log.info("Deleted product: {}", product.getTitle());
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(previous));
+    }
+
+    private void publishChange(ProductDocument previous, Product product) {
+        eventPublisher.publishEvent(ProductChangedEvent.saved(previous, ProductDocument.from(product)));
+    }
+
+    /**
+     * Load one page of an already ordered id list, preserving that order.
+     */
+    private SearchPage<ProductCard> loadPage(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new SearchPage<>(loadInOrder(ids.subList(from, to)), pageable, ids.size());
+    }
+
+    /**
+     * Attach a total to a database-served page as cheaply as possible: a
+     * short page already implies it, the search index can count exactly from
+     * memory, and otherwise the planner estimate decides between an exact
+     * count(*) and an approximate "N+" total.
+     */
+    private SearchPage<ProductCard> countResults(List<ProductCard> content, Pageable pageable,
+            Specification<Product> spec, ProductSearchCriteria criteria) {
+        if (content.size() < pageable.getPageSize() && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            return new SearchPage<>(content, pageable, pageable.getOffset() + content.size());
+        }
+
+        if (productSearchIndex.isReady()) {
+            long total = productSearchIndex.count(criteria);
+            return new SearchPage<>(content, pageable, total);
+        }
+
+        long threshold = searchProperties.getExactCountThreshold();
+        long estimate = productCountEstimator.estimate(criteria);
+        if (estimate < 0 || estimate < threshold) {
+            return new SearchPage<>(content, pageable, productRepository.count(spec));
+        }
+
+        long total = Math.max(estimate, pageable.getOffset() + content.size() + 1);
+        return new SearchPage<>(content, pageable, total, true, threshold);
+    }
+
+    /**
+     * Cards for an ordered id list in one statement, preserving that order.
+     */
+    private List<ProductCard> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductCard> byId = productRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductCard::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     private void addTags(Product product, Set<String> tags) {
-        for (String tagName : tags) {
+        for (String tagName : Tag.canonicalNames(tags)) {
+            Tag dictionaryTag = tagDictionary.resolve(tagName);
             ProductTag tag = ProductTag.builder()
                     .product(product)
-                    .tag(tagName.trim())
+                    .tag(tagName)
+                    .tagId(dictionaryTag.getId())
                     .build();
             product.getTags().add(tag);
             productTagRepository.save(tag);
@@ -201,11 +412,15 @@ public class ProductService {
     }
 
     private Specification<Product> buildSearchSpecification(ProductSearchCriteria criteria) {
+        Set<String> tagNames = Tag.canonicalNames(criteria.getTags());
+        List<Long> tagIds = tagDictionary.idsOf(tagNames);
+
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // Only show published products in search
-            predicates.add(cb.equal(root.get("status"), Product.ProductStatus.PUBLISHED));
+            // Only show published products in search; a literal, so the partial metadata index applies
+            predicates.add(cb.isTrue(cb.function(ProductStatusFunctionContributor.IS_PUBLISHED, Boolean.class,
+                    root.get("status"))));
 
             // Keyword search (title, subtitle, description)
             if (criteria.getKeyword() != null && !criteria.getKeyword().isBlank()) {
@@ -224,32 +439,60 @@ public class ProductService {
                 predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
             }
 
-            // Metadata filtering (grade, subject, resourceType)
-            if (criteria.getGrade() != null) {
-                predicates.add(cb.equal(
-                        cb.function("jsonb_extract_path_text", String.class,
-                                root.get("metadata"), cb.literal("grade")),
-                        criteria.getGrade()));
+            // Metadata filtering (grade, subject, resourceType) as one containment test
+            String metadataFilter = metadataFilter(criteria);
+            if (metadataFilter != null) {
+                predicates.add(cb.isTrue(cb.function(JsonbFunctionContributor.JSONB_CONTAINS, Boolean.class,
+                        root.get("metadata"), cb.literal(metadataFilter))));
             }
 
-            if (criteria.getSubject() != null) {
-                predicates.add(cb.equal(
-                        cb.function("jsonb_extract_path_text", String.class,
-                                root.get("metadata"), cb.literal("subject")),
-                        criteria.getSubject()));
-            }
-
-            if (criteria.getResourceType() != null) {
-                predicates.add(cb.equal(
-                        cb.function("jsonb_extract_path_text", String.class,
-                                root.get("metadata"), cb.literal("resourceType")),
-                        criteria.getResourceType()));
+            // Tags: products having all (or any) of the requested dictionary ids
+            if (!tagNames.isEmpty()) {
+                boolean matchAll = !criteria.isMatchAnyTag();
+                if (tagIds.isEmpty() || (matchAll && tagIds.size() < tagNames.size())) {
+                    predicates.add(cb.disjunction()); // an unknown tag can't be matched
+                } else {
+                    Subquery<Long> tagged = query.subquery(Long.class);
+                    Root<ProductTag> productTag = tagged.from(ProductTag.class);
+                    tagged.select(productTag.get("product").get("id"))
+                            .where(productTag.get("tagId").in(tagIds));
+                    if (matchAll) {
+                        tagged.groupBy(productTag.get("product").get("id"))
+                                .having(cb.equal(cb.countDistinct(productTag.get("tagId")), (long) tagIds.size()));
+                    }
+                    predicates.add(root.get("id").in(tagged));
+                }
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
+    /**
+     * JSON object of the requested metadata values for a {@code @>} test,
+     * or {@code null} when no metadata filter is set.
+     */
+    static String metadataFilter(ProductSearchCriteria criteria) {
+        Map<String, String> filter = new LinkedHashMap<>();
+        if (StringUtils.hasText(criteria.getGrade())) {
+            filter.put("grade", criteria.getGrade());
+        }
+        if (StringUtils.hasText(criteria.getSubject())) {
+            filter.put("subject", criteria.getSubject());
+        }
+        if (StringUtils.hasText(criteria.getResourceType())) {
+            filter.put("resourceType", criteria.getResourceType());
+        }
+        if (filter.isEmpty()) {
+            return null;
+        }
+        try {
+            return JSON.writeValueAsString(filter);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid metadata filter", e);
+        }
+    }
+
     private Pageable applySorting(String sortBy, Pageable pageable) {
         if (sortBy == null || sortBy.isBlank()) {
             return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
@@ -260,7 +503,7 @@ public class ProductService {
             case "price_asc" -> Sort.by(Sort.Direction.ASC, "price");
             case "price_desc" -> Sort.by(Sort.Direction.DESC, "price");
             case "popularity" -> Sort.by(Sort.Direction.DESC, "purchases");
-            case "rating" -> Sort.by(Sort.Direction.DESC, "id"); // TODO: Implement actual rating sort
+            case "rating" -> Sort.by(Sort.Direction.DESC, "averageRating").and(Sort.by(Sort.Direction.DESC, "id"));
             default -> Sort.by(Sort.Direction.DESC, "createdAt"); // newest
         };
 
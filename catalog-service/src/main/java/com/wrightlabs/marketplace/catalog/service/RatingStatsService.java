@@ -0,0 +1,62 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.catalog.event.ProductChangedEvent;
+import com.wrightlabs.marketplace.catalog.search.ProductDocument;
+import com.wrightlabs.marketplace.domain.entity.ProductRatingStats;
+import com.wrightlabs.marketplace.domain.entity.Review;
+import com.wrightlabs.marketplace.domain.repository.ProductRatingStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps {@link ProductRatingStats} in step with review moderation. Only
+ * approved reviews count, so the aggregate changes when a review enters or
+ * leaves the APPROVED status.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class RatingStatsService {
+
+    private final ProductRatingStatsRepository ratingStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductRatingStats getStats(Long productId) {
+        return ratingStatsRepository.findById(productId)
+                .orElseGet(() -> ProductRatingStats.empty(productId));
+    }
+
+    /**
+     * Apply a review's status change to its product's aggregate.
+     *
+     * @param previousStatus status before the change, {@code null} for a new review
+     */
+    @Transactional
+    public void reviewStatusChanged(Review review, Review.ReviewStatus previousStatus) {
+        boolean wasCounted = previousStatus == Review.ReviewStatus.APPROVED;
+        boolean isCounted = review.getStatus() == Review.ReviewStatus.APPROVED;
+        if (wasCounted == isCounted) {
+            return;
+        }
+
+        Long productId = review.getProduct().getId();
+        ratingStatsRepository.insertIfAbsent(productId);
+        ProductRatingStats stats = ratingStatsRepository.findForUpdate(productId)
+                .orElseThrow(() -> new IllegalStateException("Rating stats missing for product " + productId));
+        ProductDocument previous = ProductDocument.from(review.getProduct()).toBuilder()
+                .averageRating(stats.getAverageRating())
+                .build();
+        stats.apply(review.getRating(), isCounted ? 1 : -1);
+        ratingStatsRepository.save(stats);
+        log.debug("Product {} rating now {} from {} reviews", productId, stats.getAverageRating(), stats.getRatingCount());
+
+        // The product's averageRating formula is stale in this session, take it from the aggregate
+        eventPublisher.publishEvent(ProductChangedEvent.saved(previous, previous.toBuilder()
+                .averageRating(stats.getAverageRating())
+                .build()));
+    }
+}
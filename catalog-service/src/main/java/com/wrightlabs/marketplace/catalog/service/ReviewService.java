@@ -1,13 +1,15 @@
 package com.wrightlabs.marketplace.catalog.service;
 
 import com.wrightlabs.marketplace.catalog.dto.ReviewRequest;
-import com.wrightlabs.marketplace.domain.entity.Order;
 import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductRatingStats;
 import com.wrightlabs.marketplace.domain.entity.Review;
 import com.wrightlabs.marketplace.domain.entity.User;
+import com.wrightlabs.marketplace.domain.entity.UserEntitlement;
 import com.wrightlabs.marketplace.domain.repository.OrderRepository;
 import com.wrightlabs.marketplace.domain.repository.ProductRepository;
 import com.wrightlabs.marketplace.domain.repository.ReviewRepository;
+import com.wrightlabs.marketplace.domain.repository.UserEntitlementRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -15,8 +17,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -26,6 +26,8 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final UserEntitlementRepository userEntitlementRepository;
+    private final RatingStatsService ratingStatsService;
 
     @Transactional
     public Review submitReview(ReviewRequest request, User user) {
@@ -33,15 +35,10 @@ public class ReviewService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
 
         // Verify user has purchased the product
-        boolean hasPurchased = orderRepository.findAll().stream()
-                .filter(order -> order.getBuyer() != null && order.getBuyer().getId().equals(user.getId()))
-                .filter(order -> order.getStatus() == Order.OrderStatus.PAID)
-                .flatMap(order -> order.getItems().stream())
-                .anyMatch(item -> item.getProduct() != null && item.getProduct().getId().equals(product.getId()));
-
-        if (!hasPurchased) {
-            throw new IllegalArgumentException("You must purchase this product before leaving a review");
-        }
+        UserEntitlement entitlement = userEntitlementRepository
+                .findById(new UserEntitlement.Key(user.getId(), product.getId()))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "You must purchase this product before leaving a review"));
 
         // Check if user has already reviewed this product
         if (reviewRepository.findByProductIdAndUserId(product.getId(), user.getId()).isPresent()) {
@@ -51,12 +48,14 @@ public class ReviewService {
         Review review = Review.builder()
                 .product(product)
                 .user(user)
+                .order(orderRepository.getReferenceById(entitlement.getOrderId()))
                 .rating(request.getRating())
                 .comment(request.getComment())
                 .status(Review.ReviewStatus.APPROVED) // Auto-approve for now, can change to PENDING
                 .build();
 
         review = reviewRepository.save(review);
+        ratingStatsService.reviewStatusChanged(review, null);
         log.info("User {} submitted review for product {}", user.getEmail(), product.getTitle());
 
         return review;
@@ -67,21 +66,12 @@ public class ReviewService {
     }
 
     public Double getAverageRating(Long productId) {
-        List<Review> reviews = reviewRepository.findByProductIdAndStatus(
-                productId, Review.ReviewStatus.APPROVED, Pageable.unpaged()).getContent();
-
-        if (reviews.isEmpty()) {
-            return null;
-        }
-
-        return reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+        ProductRatingStats stats = ratingStatsService.getStats(productId);
+        return stats.getRatingCount() > 0 ? stats.getAverageRating().doubleValue() : null;
     }
 
     public long getReviewCount(Long productId) {
-        return reviewRepository.countByProductIdAndStatus(productId, Review.ReviewStatus.APPROVED);
+        return ratingStatsService.getStats(productId).getRatingCount();
     }
 
     @Transactional
@@ -89,8 +79,10 @@ public class ReviewService {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found"));
 
+        Review.ReviewStatus previousStatus = review.getStatus();
         review.setStatus(Review.ReviewStatus.APPROVED);
         reviewRepository.save(review);
+        ratingStatsService.reviewStatusChanged(review, previousStatus);
         log.info("Approved review {}", reviewId);
     }
 
@@ -99,8 +91,10 @@ public class ReviewService {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found"));
 
+        Review.ReviewStatus previousStatus = review.getStatus();
         review.setStatus(Review.ReviewStatus.REJECTED);
         reviewRepository.save(review);
+        ratingStatsService.reviewStatusChanged(review, previousStatus);
         log.info("Rejected review {}", reviewId);
     }
 
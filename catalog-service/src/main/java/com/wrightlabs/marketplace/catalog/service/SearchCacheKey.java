@@ -0,0 +1,128 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.catalog.dto.ProductSearchCriteria;
+import com.wrightlabs.marketplace.catalog.search.ProductDocument;
+import com.wrightlabs.marketplace.catalog.search.TextAnalyzer;
+import com.wrightlabs.marketplace.domain.entity.Tag;
+import lombok.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Canonical form of a search request, so that requests differing only in
+ * case, whitespace, tag order or an implicit default sort share one cache
+ * entry. Faceted requests are keyed apart from plain ones since their
+ * entries also hold the facet counts.
+ */
+@Value
+class SearchCacheKey {
+
+    private static final TextAnalyzer ANALYZER = new TextAnalyzer();
+
+    String keyword;
+    String grade;
+    String subject;
+    String resourceType;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+    Set<String> tags;
+    boolean matchAnyTag;
+    String sort;
+    int page;
+    int size;
+    boolean faceted;
+
+    static SearchCacheKey of(ProductSearchCriteria criteria, Pageable pageable) {
+        return of(criteria, pageable, false);
+    }
+
+    static SearchCacheKey of(ProductSearchCriteria criteria, Pageable pageable, boolean faceted) {
+        String keyword = StringUtils.hasText(criteria.getKeyword())
+                ? criteria.getKeyword().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                : null;
+        String sort = StringUtils.hasText(criteria.getSortBy())
+                ? criteria.getSortBy().trim().toLowerCase(Locale.ROOT)
+                : keyword != null ? "relevance" : "newest";
+
+        return new SearchCacheKey(
+                keyword,
+                trimToNull(criteria.getGrade()),
+                trimToNull(criteria.getSubject()),
+                trimToNull(criteria.getResourceType()),
+                normalize(criteria.getMinPrice()),
+                normalize(criteria.getMaxPrice()),
+                new TreeSet<>(Tag.canonicalNames(criteria.getTags())),
+                criteria.isMatchAnyTag(),
+                sort,
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                faceted);
+    }
+
+    /**
+     * Whether a product could belong to this search's results. Errs on the
+     * side of yes: keyword matching accepts either the index's term match or
+     * the database's substring match. For faceted searches the facet filters
+     * are ignored, because each facet is counted without its own filter and a
+     * product outside the results can still move those counts.
+     */
+    boolean mayMatch(ProductDocument document) {
+        if (!document.isPublished()) {
+            return false;
+        }
+        if (!faceted && !matchesFacetFilters(document)) {
+            return false;
+        }
+        if (!tags.isEmpty()) {
+            boolean tagMatch = matchAnyTag
+                    ? tags.stream().anyMatch(document.getTags()::contains)
+                    : document.getTags().containsAll(tags);
+            if (!tagMatch) {
+                return false;
+            }
+        }
+        return keyword == null || matchesKeyword(document);
+    }
+
+    private boolean matchesFacetFilters(ProductDocument document) {
+        if (grade != null && !grade.equals(document.getGrade())
+                || subject != null && !subject.equals(document.getSubject())
+                || resourceType != null && !resourceType.equals(document.getResourceType())) {
+            return false;
+        }
+        return (minPrice == null || document.getPrice().compareTo(minPrice) >= 0)
+                && (maxPrice == null || document.getPrice().compareTo(maxPrice) <= 0);
+    }
+
+    private boolean matchesKeyword(ProductDocument document) {
+        List<String> fields = new ArrayList<>(document.getTags());
+        fields.add(document.getTitle());
+        fields.add(document.getSubtitle());
+        fields.add(document.getDescription());
+
+        Set<String> terms = new HashSet<>();
+        for (String field : fields) {
+            if (field != null && field.toLowerCase(Locale.ROOT).contains(keyword)) {
+                return true;
+            }
+            terms.addAll(ANALYZER.analyze(field));
+        }
+        return terms.containsAll(ANALYZER.analyze(keyword));
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros() : null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wrightlabs.marketplace.catalog.config.SearchProperties;
+import com.wrightlabs.marketplace.catalog.dto.FacetCount;
+import com.wrightlabs.marketplace.catalog.event.ProductChangedEvent;
+import com.wrightlabs.marketplace.catalog.search.ProductDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-limited cache of search result pages, both the plain and the
+ * faceted listing. Entries hold only the page's product ids, total and
+ * facet counts, never entities; callers hydrate them by primary key.
+ *
+ * Product changes evict exactly the entries that listed the product or
+ * whose criteria the product matched before the change or matches after
+ * it, since either way the entry's total moves.
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+
+    private final Cache<SearchCacheKey, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SearchResultCache(SearchProperties searchProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(searchProperties.getResultCacheSize())
+                .expireAfterWrite(searchProperties.getResultCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "search.results");
+    }
+
+    Entry get(SearchCacheKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Token to pass to {@link #put}; take it before running the search.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Store a result unless a product changed after {@code generation} was
+     * taken, in which case the result may already be stale.
+     */
+    void put(SearchCacheKey key, Entry entry, long generation) {
+        if (this.generation.get() == generation) {
+            cache.put(key, entry);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        ProductDocument previous = event.getPrevious();
+        ProductDocument document = event.getDocument();
+        cache.asMap().entrySet().removeIf(entry -> entry.getValue().getProductIds().contains(event.getProductId())
+                || (previous != null && entry.getKey().mayMatch(previous))
+                || (document != null && entry.getKey().mayMatch(document)));
+    }
+
+    @Value
+    static class Entry {
+
+        List<Long> productIds;
+        long total;
+        boolean approximate;
+        long countFloor;
+        // Empty for plain searches
+        Map<String, List<FacetCount>> facets;
+    }
+}
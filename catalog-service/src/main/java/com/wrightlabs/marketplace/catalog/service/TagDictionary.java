@@ -0,0 +1,47 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.domain.entity.Tag;
+import com.wrightlabs.marketplace.domain.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maps canonical tag names to dictionary ids, creating entries on first use.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TagDictionary {
+
+    private final TagRepository tagRepository;
+
+    /**
+     * Dictionary entry for a canonical name, inserted if absent. Safe against
+     * concurrent inserts of the same name.
+     */
+    @Transactional
+    public Tag resolve(String canonicalName) {
+        return tagRepository.findByName(canonicalName).orElseGet(() -> {
+            tagRepository.insertIfAbsent(canonicalName);
+            return tagRepository.findByName(canonicalName)
+                    .orElseThrow(() -> new IllegalStateException("Tag not created: " + canonicalName));
+        });
+    }
+
+    /**
+     * Ids of the existing entries among the given canonical names; unknown
+     * names are skipped.
+     */
+    public List<Long> idsOf(Collection<String> canonicalNames) {
+        if (canonicalNames.isEmpty()) {
+            return List.of();
+        }
+        return tagRepository.findByNameIn(canonicalNames).stream()
+                .map(Tag::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.catalog.config.CounterProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for product page views. Views are counted in memory
+ * with one {@link LongAdder} per product and periodically applied to
+ * {@code product_counters.views} as a JDBC batch of relative increments, so a page
+ * view never takes a row lock or writes a new row version per request.
+ *
+ * Each product keeps its adder once created and a flush takes its count
+ * with {@link LongAdder#sumThenReset()}, so a view recorded during a flush
+ * is written by the next one rather than dropped. Counts are still
+ * best-effort: anything still buffered when the shutdown flush times out is
+ * lost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCountBuffer {
+
+    private static final String INCREMENT_VIEWS = "UPDATE product_counters SET views = views + ? WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CounterProperties counterProperties;
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void record(Long productId) {
+        pending.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${counters.flush-interval:PT10S}")
+    public void flush() {
+        flush(false, 0);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        long deadline = System.nanoTime() + counterProperties.getShutdownFlushTimeout().toNanos();
+        flush(true, deadline);
+        long unflushed = pending.values().stream().filter(adder -> adder.sum() > 0).count();
+        if (unflushed > 0) {
+            log.warn("Dropped buffered views for {} products at shutdown", unflushed);
+        }
+    }
+
+    /**
+     * Drain the buffer and write it out in batches until done or, when
+     * {@code hasDeadline} is set, past the deadline.
+     */
+    private void flush(boolean hasDeadline, long deadlineNanos) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Ascending ids keep row lock order consistent across concurrent flushes
+        Map<Long, Long> drained = new TreeMap<>();
+        pending.forEach((productId, adder) -> {
+            long views = adder.sumThenReset();
+            if (views > 0) {
+                drained.put(productId, views);
+            }
+        });
+
+        List<Object[]> batch = new ArrayList<>(counterProperties.getFlushBatchSize());
+        long written = 0;
+        for (Map.Entry<Long, Long> entry : drained.entrySet()) {
+            batch.add(new Object[] { entry.getValue(), entry.getKey() });
+            if (batch.size() == counterProperties.getFlushBatchSize()) {
+                written += writeBatch(batch, hasDeadline, deadlineNanos);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += writeBatch(batch, hasDeadline, deadlineNanos);
+        }
+        log.debug("Flushed views for {} of {} products", written, drained.size());
+    }
+
+    private int writeBatch(List<Object[]> batch, boolean hasDeadline, long deadlineNanos) {
+        if (hasDeadline && System.nanoTime() - deadlineNanos > 0) {
+            requeue(batch);
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_VIEWS, batch);
+            return batch.size();
+        } catch (DataAccessException e) {
+            log.warn("Could not flush view counts, will retry: {}", e.getMessage());
+            requeue(batch);
+            return 0;
+        }
+    }
+
+    private void requeue(List<Object[]> batch) {
+        for (Object[] row : batch) {
+            pending.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+        }
+    }
+}
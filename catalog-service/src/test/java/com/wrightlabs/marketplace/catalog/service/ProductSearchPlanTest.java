@@ -0,0 +1,101 @@
+package com.wrightlabs.marketplace.catalog.service;
+
+import com.wrightlabs.marketplace.catalog.config.SearchProperties;
+import com.wrightlabs.marketplace.catalog.dto.ProductSearchCriteria;
+import com.wrightlabs.marketplace.catalog.search.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans of the SQL that product search really issues. Prepared statements
+ * switch to a generic plan after a few executions, so an index only helps
+ * if the generic plan, built without parameter values, can use it.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.wrightlabs.marketplace.catalog.service.RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import(ProductService.class)
+class ProductSearchPlanTest {
+
+    private static final String PUBLISHED_METADATA_INDEX = "idx_products_published_metadata";
+
+    // EXPLAIN (GENERIC_PLAN) needs Postgres 16
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private TagDictionary tagDictionary;
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+    @MockBean
+    private ProductCountEstimator productCountEstimator;
+    @MockBean
+    private SearchProperties searchProperties;
+    @MockBean
+    private ViewCountBuffer viewCountBuffer;
+    @MockBean
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void metadataSearchCanUsePublishedMetadataIndexInGenericPlan() {
+        RecordingStatementInspector.clear();
+        productService.searchProducts(ProductSearchCriteria.builder().grade("Grade 4").build(),
+                PageRequest.of(0, 20));
+        String search = RecordingStatementInspector.statements().stream()
+                .filter(sql -> sql.contains("@>"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No metadata search was issued"));
+
+        // Leave the partial index as the only way to avoid reading the whole table;
+        // the test transaction rolls the drops back
+        List<String> otherIndexes = jdbcTemplate.queryForList(
+                "SELECT i.relname FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid"
+                        + " WHERE x.indrelid = 'products'::regclass AND NOT x.indisunique AND i.relname <> ?",
+                String.class, PUBLISHED_METADATA_INDEX);
+        otherIndexes.forEach(index -> jdbcTemplate.execute("DROP INDEX " + index));
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+
+        String plan = String.join("\n",
+                jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numbered(search), String.class));
+
+        assertThat(plan).contains(PUBLISHED_METADATA_INDEX);
+    }
+
+    /**
+     * JDBC {@code ?} placeholders as the numbered parameters EXPLAIN accepts.
+     */
+    private static String numbered(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.wrightlabs.marketplace.domain.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code jsonb_contains(column, json)}, rendered as the Postgres
+ * containment operator {@code column @> json::jsonb}. Unlike equality on
+ * {@code jsonb_extract_path_text}, containment can be answered by a GIN
+ * index on the column.
+ *
+ * Also registers {@code jsonb_text(column, key)}, the {@code ->>} operator,
+ * for projections that read a single metadata value as text.
+ *
+ * Discovered through META-INF/services.
+ */
+public class JsonbFunctionContributor implements FunctionContributor {
+
+    public static final String JSONB_CONTAINS = "jsonb_contains";
+    public static final String JSONB_TEXT = "jsonb_text";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(
+                JSONB_CONTAINS,
+                "(?1 @> cast(?2 as jsonb))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(
+                JSONB_TEXT,
+                "(?1 ->> ?2)",
+                types.resolve(StandardBasicTypes.STRING));
+    }
+}
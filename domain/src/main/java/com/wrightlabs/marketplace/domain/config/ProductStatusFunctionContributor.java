@@ -0,0 +1,30 @@
+package com.wrightlabs.marketplace.domain.config;
+
+import com.wrightlabs.marketplace.domain.entity.Product;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code is_published(status)}, rendered as
+ * {@code status = 'PUBLISHED'} with the status as an SQL literal. Criteria
+ * comparisons bind their values as parameters, and a generic plan for
+ * {@code status = $1} cannot use indexes that are partial on published
+ * products; a literal lets the planner match the index predicate.
+ *
+ * Discovered through META-INF/services.
+ */
+public class ProductStatusFunctionContributor implements FunctionContributor {
+
+    public static final String IS_PUBLISHED = "is_published";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(
+                IS_PUBLISHED,
+                "(?1 = '" + Product.ProductStatus.PUBLISHED.name() + "')",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -2,6 +2,7 @@ package com.wrightlabs.marketplace.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -9,6 +10,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "carts")
+@NamedEntityGraph(name = Cart.WITH_ITEMS, attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Builder
@@ -16,6 +19,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Cart {
 
+    /** Items and their products, for the cart page, totals and checkout. */
+    public static final String WITH_ITEMS = "Cart.withItems";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,5 +41,6 @@ public class Cart {
     private LocalDateTime expiresAt;
 
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 32)
     private java.util.List<CartItem> items = new java.util.ArrayList<>();
 }
@@ -3,6 +3,8 @@ package com.wrightlabs.marketplace.domain.entity;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,6 +17,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(name = Order.WITH_ITEMS, attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Builder
@@ -22,6 +26,9 @@ import java.util.Set;
 @AllArgsConstructor
 public class Order {
 
+    /** Items and their products, for checkout and order confirmation. */
+    public static final String WITH_ITEMS = "Order.withItems";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -66,7 +73,9 @@ public class Order {
     @Column(name = "paid_at")
     private LocalDateTime paidAt;
 
+    // Walking items across a page of orders loads them all in one subselect
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Fetch(FetchMode.SUBSELECT)
     @Builder.Default
     private Set<OrderItem> items = new HashSet<>();
 
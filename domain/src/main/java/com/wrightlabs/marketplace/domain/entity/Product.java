@@ -3,6 +3,8 @@ package com.wrightlabs.marketplace.domain.entity;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -16,6 +18,12 @@ import java.util.Set;
 
 @Entity
 @Table(name = "products")
+@NamedEntityGraph(name = Product.WITH_DETAILS, attributeNodes = {
+        @NamedAttributeNode("seller"),
+        @NamedAttributeNode("tags"),
+        @NamedAttributeNode("files")
+})
+@BatchSize(size = 32)
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Builder
@@ -23,6 +31,9 @@ import java.util.Set;
 @AllArgsConstructor
 public class Product {
 
+    /** Seller, tags and files: everything the product page renders. */
+    public static final String WITH_DETAILS = "Product.withDetails";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -50,11 +61,16 @@ public class Product {
     @Column(nullable = false, length = 20)
     private ProductStatus status = ProductStatus.DRAFT;
 
-    @Column(nullable = false)
-    private Integer views = 0;
+    // Read-only, from product_counters
+    @Formula("(SELECT coalesce(max(c.views), 0) FROM product_counters c WHERE c.product_id = id)")
+    private Long views;
+
+    @Formula("(SELECT coalesce(max(c.purchases), 0) FROM product_counters c WHERE c.product_id = id)")
+    private Integer purchases;
 
-    @Column(nullable = false)
-    private Integer purchases = 0;
+    // Read-only, from product_rating_stats; 0 until the first approved review
+    @Formula("(SELECT coalesce(max(s.average_rating), 0) FROM product_rating_stats s WHERE s.product_id = id)")
+    private BigDecimal averageRating;
 
     @Type(JsonBinaryType.class)
     @Column(columnDefinition = "jsonb")
@@ -71,15 +87,18 @@ public class Product {
     // Relationships
     @ManyToMany
     @JoinTable(name = "product_categories", joinColumns = @JoinColumn(name = "product_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
+    @BatchSize(size = 32)
     @Builder.Default
     private Set<Category> categories = new HashSet<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 32)
     @Builder.Default
     private Set<ProductTag> tags = new HashSet<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("sortOrder ASC")
+    @BatchSize(size = 32)
     @Builder.Default
     private Set<ProductFile> files = new HashSet<>();
 
@@ -0,0 +1,29 @@
+package com.wrightlabs.marketplace.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Frequently incremented per-product counters, kept off the wide products
+ * row. Only ever changed by in-place SQL increments in
+ * {@code ProductCountersRepository}; {@link Product} reads them through
+ * formulas.
+ */
+@Entity
+@Table(name = "product_counters")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCounters {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private long views;
+
+    @Column(nullable = false)
+    private int purchases;
+}
@@ -0,0 +1,100 @@
+package com.wrightlabs.marketplace.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Running aggregate of a product's approved reviews: count, sum and a 1-5
+ * star histogram. Maintained incrementally as reviews are approved or
+ * rejected so ratings never have to be recomputed from the reviews table.
+ */
+@Entity
+@Table(name = "product_rating_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRatingStats {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "rating_count", nullable = false)
+    private int ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "stars_1", nullable = false)
+    private int stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private int stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private int stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private int stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private int stars5;
+
+    @Column(name = "average_rating", nullable = false, precision = 3, scale = 2)
+    @Builder.Default
+    private BigDecimal averageRating = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static ProductRatingStats empty(Long productId) {
+        return ProductRatingStats.builder()
+                .productId(productId)
+                .build();
+    }
+
+    /**
+     * Add ({@code delta = 1}) or remove ({@code delta = -1}) one rating.
+     */
+    public void apply(int rating, int delta) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        switch (rating) {
+            case 1 -> stars1 += delta;
+            case 2 -> stars2 += delta;
+            case 3 -> stars3 += delta;
+            case 4 -> stars4 += delta;
+            default -> stars5 += delta;
+        }
+        ratingCount += delta;
+        ratingSum += (long) rating * delta;
+        averageRating = ratingCount > 0
+                ? BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(ratingCount), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        updatedAt = LocalDateTime.now();
+    }
+
+    public int starCount(int stars) {
+        return switch (stars) {
+            case 1 -> stars1;
+            case 2 -> stars2;
+            case 3 -> stars3;
+            case 4 -> stars4;
+            case 5 -> stars5;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Share of ratings with the given number of stars, 0-100.
+     */
+    public int starPercent(int stars) {
+        return ratingCount > 0 ? Math.round(starCount(stars) * 100f / ratingCount) : 0;
+    }
+}
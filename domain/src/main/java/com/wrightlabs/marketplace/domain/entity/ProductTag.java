@@ -21,4 +21,7 @@ public class ProductTag {
 
     @Column(nullable = false, length = 100)
     private String tag;
+
+    @Column(name = "tag_id", nullable = false)
+    private Long tagId;
 }
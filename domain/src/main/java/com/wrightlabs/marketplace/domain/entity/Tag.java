@@ -0,0 +1,59 @@
+package com.wrightlabs.marketplace.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tag dictionary entry. Each distinct canonical tag name is stored once and
+ * {@link ProductTag} rows refer to it by id.
+ */
+@Entity
+@Table(name = "tags")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tag {
+
+    public static final int MAX_NAME_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = MAX_NAME_LENGTH)
+    private String name;
+
+    /**
+     * Canonical form of a user-entered tag: trimmed, lower-cased, with inner
+     * whitespace collapsed. Returns an empty string for blank input.
+     */
+    public static String canonicalName(String raw) {
+        if (raw == null) {
+            return "";
+        }
+        String name = raw.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH).trim() : name;
+    }
+
+    /**
+     * Canonical, de-duplicated names of the given tags, blanks dropped.
+     */
+    public static Set<String> canonicalNames(Collection<String> tags) {
+        Set<String> names = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                String name = canonicalName(tag);
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+}
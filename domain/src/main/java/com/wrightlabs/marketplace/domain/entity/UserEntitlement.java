@@ -0,0 +1,45 @@
+package com.wrightlabs.marketplace.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A user's right to download a product, granted when the order buying it
+ * is paid. Keyed by (user, product) so ownership checks are a primary key
+ * lookup. Rows are only written by {@code UserEntitlementRepository}'s
+ * insert-from-order statement.
+ */
+@Entity
+@Table(name = "user_entitlements")
+@IdClass(UserEntitlement.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEntitlement {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "granted_at", nullable = false)
+    private LocalDateTime grantedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long productId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.wrightlabs.marketplace.domain.projection;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only listing card for a product: just what search results, rails,
+ * the wishlist and the library render. Built by a single constructor
+ * expression query (see {@code ProductRepository}), so a page of cards is
+ * one statement and never touches description, seller, tags or files.
+ */
+@Value
+public class ProductCard {
+
+    Long id;
+    String title;
+    String subtitle;
+    BigDecimal price;
+    String currency;
+    String storeName;
+    BigDecimal averageRating;
+    String previewKey;
+    String grade;
+    String subject;
+
+    public ProductCard(Long id, String title, String subtitle, BigDecimal price, String currency,
+            String storeName, BigDecimal averageRating, String previewKey, String grade, String subject) {
+        this.id = id;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.price = price;
+        this.currency = currency;
+        this.storeName = storeName;
+        // Every product has a stats row since V9; one missing anyway reads as unrated
+        this.averageRating = averageRating != null ? averageRating : BigDecimal.ZERO;
+        this.previewKey = previewKey;
+        this.grade = grade;
+        this.subject = subject;
+    }
+}
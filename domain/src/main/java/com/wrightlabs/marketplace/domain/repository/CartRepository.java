@@ -1,6 +1,7 @@
 package com.wrightlabs.marketplace.domain.repository;
 
 import com.wrightlabs.marketplace.domain.entity.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,5 +15,11 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 
     Optional<Cart> findBySessionId(String sessionId);
 
+    @EntityGraph(Cart.WITH_ITEMS)
+    Optional<Cart> findWithItemsByUserId(Long userId);
+
+    @EntityGraph(Cart.WITH_ITEMS)
+    Optional<Cart> findWithItemsBySessionId(String sessionId);
+
     void deleteByExpiresAtBefore(LocalDateTime dateTime);
 }
@@ -17,6 +17,14 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     List<OrderItem> findBySellerId(Long sellerId);
 
+    @Query("SELECT COUNT(DISTINCT oi.order.id) FROM OrderItem oi " +
+            "WHERE oi.seller.id = :sellerId AND oi.order.status = 'PAID'")
+    long countPaidOrdersBySeller(@Param("sellerId") Long sellerId);
+
+    @Query("SELECT COALESCE(SUM(oi.sellerAmount), 0) FROM OrderItem oi " +
+            "WHERE oi.seller.id = :sellerId AND oi.order.status = 'PAID'")
+    BigDecimal sumPaidSellerAmount(@Param("sellerId") Long sellerId);
+
     @Query("SELECT SUM(oi.sellerAmount) FROM OrderItem oi " +
             "WHERE oi.seller.id = :sellerId " +
             "AND oi.order.status = 'PAID' " +
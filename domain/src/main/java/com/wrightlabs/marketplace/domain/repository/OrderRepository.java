@@ -4,9 +4,14 @@ import com.wrightlabs.marketplace.domain.entity.Order;
 import com.wrightlabs.marketplace.domain.entity.Order.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,9 +19,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    @EntityGraph(Order.WITH_ITEMS)
+    Optional<Order> findWithItemsByOrderNumber(String orderNumber);
+
     Page<Order> findByBuyerId(Long buyerId, Pageable pageable);
 
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
     Page<Order> findByBuyerIdAndStatus(Long buyerId, OrderStatus status, Pageable pageable);
+
+    /**
+     * Creation time of each paid order since the given time that contains
+     * at least one of the seller's items.
+     */
+    @Query("SELECT o.createdAt FROM Order o WHERE o.status = 'PAID' AND o.createdAt > :since " +
+            "AND EXISTS (SELECT 1 FROM OrderItem oi WHERE oi.order = o AND oi.seller.id = :sellerId)")
+    List<LocalDateTime> findPaidTimesBySellerSince(@Param("sellerId") Long sellerId,
+            @Param("since") LocalDateTime since);
 }
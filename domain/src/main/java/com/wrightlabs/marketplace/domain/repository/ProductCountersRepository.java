@@ -0,0 +1,22 @@
+package com.wrightlabs.marketplace.domain.repository;
+
+import com.wrightlabs.marketplace.domain.entity.ProductCounters;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductCountersRepository extends JpaRepository<ProductCounters, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO product_counters (product_id) VALUES (:productId) " +
+            "ON CONFLICT (product_id) DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("productId") Long productId);
+
+    @Modifying
+    @Query(value = "INSERT INTO product_counters (product_id, purchases) VALUES (:productId, 1) " +
+            "ON CONFLICT (product_id) DO UPDATE SET purchases = product_counters.purchases + 1", nativeQuery = true)
+    void incrementPurchases(@Param("productId") Long productId);
+}
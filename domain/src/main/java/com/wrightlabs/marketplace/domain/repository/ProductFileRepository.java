@@ -4,6 +4,7 @@ import com.wrightlabs.marketplace.domain.entity.ProductFile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +15,8 @@ public interface ProductFileRepository extends JpaRepository<ProductFile, Long>
     List<ProductFile> findByProductIdAndIsPreviewTrue(Long productId);
 
     List<ProductFile> findByProductId(Long productId);
+
+    List<ProductFile> findByProductIdInOrderBySortOrderAsc(Collection<Long> productIds);
+
+    boolean existsByFileKey(String fileKey);
 }
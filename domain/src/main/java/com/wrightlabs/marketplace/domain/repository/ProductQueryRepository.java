@@ -0,0 +1,27 @@
+package com.wrightlabs.marketplace.domain.repository;
+
+import com.wrightlabs.marketplace.domain.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductQueryRepository {
+
+    /**
+     * Ids of one page, in page order, without the count query that
+     * Page-returning finders issue; callers decide how (and whether) to
+     * count, and load the page itself as cards.
+     */
+    List<Long> findIds(Specification<Product> spec, Pageable pageable);
+
+    /**
+     * Ids of up to {@code limit} products following the given sort key and
+     * id, ordered by the key with id as tie-breaker; pass a null key for the
+     * first page. Keyset pagination: the page is a range scan from the
+     * previous page's last row however deep it is.
+     */
+    List<Long> findIdsAfter(Specification<Product> spec, Sort.Order order,
+            Comparable<?> afterKey, Long afterId, int limit);
+}
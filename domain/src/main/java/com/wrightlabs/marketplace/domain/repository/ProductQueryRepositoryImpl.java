@@ -0,0 +1,141 @@
+package com.wrightlabs.marketplace.domain.repository;
+
+import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductCounters;
+import com.wrightlabs.marketplace.domain.entity.ProductRatingStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductQueryRepositoryImpl implements ProductQueryRepository {
+
+    // Product attributes that are formulas over a per-product table, by the entity holding the column
+    private static final Map<String, Class<?>> JOINED_ATTRIBUTES = Map.of(
+            "views", ProductCounters.class,
+            "purchases", ProductCounters.class,
+            "averageRating", ProductRatingStats.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<Product> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("id"));
+
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        query.orderBy(toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Rows strictly after (afterKey, afterId). The redundant non-strict bound
+     * on the key lets Postgres start the index range scan at the cursor
+     * instead of filtering from the beginning.
+     */
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public List<Long> findIdsAfter(Specification<Product> spec, Sort.Order order,
+            Comparable<?> afterKey, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("id"));
+
+        // Seek on the joined table's (value, product_id) when the key lives there
+        Expression<Comparable> key;
+        Path<Long> id;
+        Class<?> joined = JOINED_ATTRIBUTES.get(order.getProperty());
+        if (joined != null) {
+            JpaEntityJoin<?> join = joinOnProductId(root, cb, joined);
+            key = join.get(order.getProperty());
+            id = join.get("productId");
+        } else {
+            key = root.get(order.getProperty());
+            id = root.get("id");
+        }
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (afterKey != null) {
+            Comparable value = afterKey;
+            predicates.add(order.isAscending()
+                    ? cb.and(cb.greaterThanOrEqualTo(key, value),
+                            cb.or(cb.greaterThan(key, value), cb.greaterThan(id, afterId)))
+                    : cb.and(cb.lessThanOrEqualTo(key, value),
+                            cb.or(cb.lessThan(key, value), cb.lessThan(id, afterId))));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(order.isAscending()
+                ? List.of(cb.asc(key), cb.asc(id))
+                : List.of(cb.desc(key), cb.desc(id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Sorts on counter and rating attributes order by a join to their table
+     * rather than the formula, so the planner can walk that table's index.
+     */
+    private List<Order> toOrders(Sort sort, Root<Product> root, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        Map<Class<?>, JpaEntityJoin<?>> joins = new HashMap<>();
+        for (Sort.Order order : sort) {
+            Class<?> joined = JOINED_ATTRIBUTES.get(order.getProperty());
+            if (joined == null) {
+                orders.addAll(QueryUtils.toOrders(Sort.by(order), root, cb));
+                continue;
+            }
+            JpaEntityJoin<?> join = joins.computeIfAbsent(joined, entity -> joinOnProductId(root, cb, entity));
+            Expression<?> value = join.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(value) : cb.desc(value));
+        }
+        return orders;
+    }
+
+    /**
+     * Inner join to a table keyed by product id; every product has a row in
+     * each of them.
+     */
+    private static <T> JpaEntityJoin<T> joinOnProductId(Root<Product> root, CriteriaBuilder cb, Class<T> entity) {
+        JpaEntityJoin<T> join = ((JpaRoot<Product>) root).join(entity, SqmJoinType.INNER);
+        join.on(cb.equal(join.get("productId"), root.get("id")));
+        return join;
+    }
+}
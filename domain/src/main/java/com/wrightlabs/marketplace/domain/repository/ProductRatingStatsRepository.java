@@ -0,0 +1,25 @@
+package com.wrightlabs.marketplace.domain.repository;
+
+import com.wrightlabs.marketplace.domain.entity.ProductRatingStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductRatingStats s WHERE s.productId = :productId")
+    Optional<ProductRatingStats> findForUpdate(@Param("productId") Long productId);
+
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_stats (product_id, updated_at) VALUES (:productId, now()) " +
+            "ON CONFLICT (product_id) DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("productId") Long productId);
+}
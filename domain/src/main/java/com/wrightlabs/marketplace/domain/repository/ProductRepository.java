@@ -2,18 +2,38 @@ package com.wrightlabs.marketplace.domain.repository;
 
 import com.wrightlabs.marketplace.domain.entity.Product;
 import com.wrightlabs.marketplace.domain.entity.Product.ProductStatus;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductQueryRepository {
+
+    /**
+     * Select list and joins shared by the {@link ProductCard} queries; the
+     * FROM clause binds the product as {@code p}. Seller name, rating and
+     * preview key come from joins and a correlated subquery in the same
+     * statement, so listing pages never lazy-load per card.
+     */
+    String CARD_SELECT = "SELECT new com.wrightlabs.marketplace.domain.projection.ProductCard(" +
+            "p.id, p.title, p.subtitle, p.price, p.currency, sp.storeName, rs.averageRating, " +
+            "(SELECT f.fileKey FROM ProductFile f WHERE f.product.id = p.id AND f.isPreview = true " +
+            "ORDER BY f.sortOrder, f.id LIMIT 1), " +
+            "jsonb_text(p.metadata, 'grade'), jsonb_text(p.metadata, 'subject')) ";
+
+    String CARD_JOINS = "LEFT JOIN SellerProfile sp ON sp.user.id = p.seller.id " +
+            "LEFT JOIN ProductRatingStats rs ON rs.productId = p.id ";
 
     Page<Product> findByStatus(ProductStatus status, Pageable pageable);
 
@@ -21,14 +41,55 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     Page<Product> findBySellerId(Long sellerId, Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE p.status = 'PUBLISHED' ORDER BY p.purchases DESC")
-    List<Product> findBestsellers(Pageable pageable);
+    @EntityGraph(Product.WITH_DETAILS)
+    Optional<Product> findWithDetailsById(Long id);
+
+    /**
+     * The product with its seller (and seller profile) and files fetched,
+     * alongside its rating stats (null if it has none), in one statement.
+     * Yields one {@code [Product, ProductRatingStats]} row per file.
+     */
+    @Query("SELECT p, s FROM Product p JOIN FETCH p.seller u LEFT JOIN FETCH u.sellerProfile " +
+            "LEFT JOIN FETCH p.files LEFT JOIN ProductRatingStats s ON s.productId = p.id WHERE p.id = :id")
+    List<Object[]> findDetailRows(@Param("id") Long id);
+
+    long countBySellerId(Long sellerId);
+
+    long countBySellerIdAndStatus(Long sellerId, ProductStatus status);
+
+    @Query(CARD_SELECT + "FROM Product p " + CARD_JOINS + "WHERE p.id IN :ids")
+    List<ProductCard> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(CARD_SELECT + "FROM Product p JOIN ProductCounters c ON c.productId = p.id " + CARD_JOINS +
+            "WHERE p.status = 'PUBLISHED' ORDER BY c.purchases DESC, c.productId DESC")
+    List<ProductCard> findBestsellerCards(Pageable pageable);
+
+    @Query(CARD_SELECT + "FROM Product p " + CARD_JOINS +
+            "WHERE p.status = 'PUBLISHED' ORDER BY p.createdAt DESC")
+    List<ProductCard> findNewestCards(Pageable pageable);
+
+    @Query(CARD_SELECT + "FROM Product p " + CARD_JOINS +
+            "WHERE p.status = 'PUBLISHED' AND rs.ratingCount > 0 " +
+            "ORDER BY rs.averageRating DESC, rs.ratingCount DESC")
+    List<ProductCard> findTopRatedCards(Pageable pageable);
+
+    @Query(CARD_SELECT + "FROM Wishlist w JOIN w.product p " + CARD_JOINS +
+            "WHERE w.user.id = :userId ORDER BY w.addedAt DESC")
+    List<ProductCard> findWishlistCards(@Param("userId") Long userId);
 
-    @Query("SELECT p FROM Product p WHERE p.status = 'PUBLISHED' ORDER BY p.createdAt DESC")
-    List<Product> findNewest(Pageable pageable);
+    @Query(CARD_SELECT + "FROM UserEntitlement e JOIN Product p ON p.id = e.productId " + CARD_JOINS +
+            "WHERE e.userId = :userId ORDER BY e.grantedAt DESC")
+    List<ProductCard> findEntitledCards(@Param("userId") Long userId);
 
-    @Query("SELECT p FROM Product p JOIN Review r ON r.product = p " +
-            "WHERE p.status = 'PUBLISHED' AND r.status = 'APPROVED' " +
-            "GROUP BY p.id ORDER BY AVG(r.rating) DESC")
-    List<Product> findTopRated(Pageable pageable);
+    /**
+     * Published products whose title or subtitle contains a word similar to
+     * the (lower-case) query, best match first. The {@code <%} word
+     * similarity operator is answered by the trigram indexes.
+     */
+    @Query(value = "SELECT p.id FROM products p " +
+            "WHERE p.status = 'PUBLISHED' AND (:query <% lower(p.title) OR :query <% lower(p.subtitle)) " +
+            "ORDER BY greatest(word_similarity(:query, lower(p.title)), " +
+            "coalesce(word_similarity(:query, lower(p.subtitle)), 0)) DESC, p.id DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findSimilarIds(@Param("query") String query, @Param("limit") int limit);
 }
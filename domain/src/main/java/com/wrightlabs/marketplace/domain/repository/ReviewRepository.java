@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,6 +17,14 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     Page<Review> findByProductIdAndStatus(Long productId, ReviewStatus status, Pageable pageable);
 
+    /**
+     * Approved reviews of a product, newest first, with their authors
+     * fetched and without a count query.
+     */
+    @Query("SELECT r FROM Review r JOIN FETCH r.user u LEFT JOIN FETCH u.sellerProfile " +
+            "WHERE r.product.id = :productId AND r.status = 'APPROVED' ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findApprovedWithAuthors(@Param("productId") Long productId, Pageable pageable);
+
     Optional<Review> findByProductIdAndUserId(Long productId, Long userId);
 
     boolean existsByProductIdAndUserId(Long productId, Long userId);
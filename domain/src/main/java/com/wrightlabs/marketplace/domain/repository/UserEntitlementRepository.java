@@ -0,0 +1,52 @@
+package com.wrightlabs.marketplace.domain.repository;
+
+import com.wrightlabs.marketplace.domain.entity.UserEntitlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserEntitlementRepository extends JpaRepository<UserEntitlement, UserEntitlement.Key> {
+
+    /**
+     * Entitle the buyer of a paid order to each product in it. Products the
+     * buyer already owns keep their original grant, so replayed payment
+     * notifications are harmless. Stamped from the database clock in UTC,
+     * which the entitlement cache's rebuild window is measured on.
+     *
+     * @return number of new entitlements
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_entitlements (user_id, product_id, order_id, granted_at) " +
+            "SELECT DISTINCT o.buyer_id, oi.product_id, o.id, now() AT TIME ZONE 'UTC' " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+            "WHERE o.id = :orderId AND o.status = 'PAID' AND o.buyer_id IS NOT NULL AND oi.product_id IS NOT NULL " +
+            "ON CONFLICT (user_id, product_id) DO NOTHING", nativeQuery = true)
+    int grantForOrder(@Param("orderId") Long orderId);
+
+    /**
+     * Re-grant a buyer everything in their paid orders, e.g. after a refund
+     * revoked products they also bought in another order.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_entitlements (user_id, product_id, order_id, granted_at) " +
+            "SELECT DISTINCT ON (oi.product_id) o.buyer_id, oi.product_id, o.id, coalesce(o.paid_at, o.created_at) " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+            "WHERE o.buyer_id = :buyerId AND o.status = 'PAID' AND oi.product_id IS NOT NULL " +
+            "ORDER BY oi.product_id, coalesce(o.paid_at, o.created_at), o.id " +
+            "ON CONFLICT (user_id, product_id) DO NOTHING", nativeQuery = true)
+    int grantForBuyer(@Param("buyerId") Long buyerId);
+
+    @Modifying
+    @Query("DELETE FROM UserEntitlement e WHERE e.orderId = :orderId")
+    int revokeForOrder(@Param("orderId") Long orderId);
+
+    @Query("SELECT e.productId FROM UserEntitlement e WHERE e.orderId = :orderId")
+    List<Long> findProductIdsByOrderId(@Param("orderId") Long orderId);
+
+    List<UserEntitlement> findByUserIdOrderByProductIdAsc(Long userId);
+}
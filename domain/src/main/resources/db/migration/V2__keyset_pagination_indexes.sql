@@ -0,0 +1,9 @@
+-- Composite indexes for keyset (seek) pagination of product listings
+-- V2__keyset_pagination_indexes.sql
+
+-- One index per ProductService sort option, with id as the tie-breaker so a
+-- page is a bounded range scan starting at the cursor. price_desc walks
+-- idx_products_status_price_id backwards.
+CREATE INDEX idx_products_status_created_at_id ON products(status, created_at DESC, id DESC);
+CREATE INDEX idx_products_status_price_id ON products(status, price, id);
+CREATE INDEX idx_products_status_purchases_id ON products(status, purchases DESC, id DESC);
@@ -0,0 +1,29 @@
+-- Tag dictionary: one row per canonical tag, referenced from product_tags by id
+
+CREATE TABLE tags (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE
+);
+
+-- Canonicalize existing free-text tags (trimmed, lower-case, single spaces)
+UPDATE product_tags SET tag = lower(btrim(regexp_replace(tag, '\s+', ' ', 'g')));
+
+DELETE FROM product_tags WHERE tag = '';
+
+DELETE FROM product_tags a
+    USING product_tags b
+    WHERE a.product_id = b.product_id AND a.tag = b.tag AND a.id > b.id;
+
+INSERT INTO tags (name)
+SELECT DISTINCT tag FROM product_tags;
+
+ALTER TABLE product_tags ADD COLUMN tag_id BIGINT REFERENCES tags(id);
+
+UPDATE product_tags pt SET tag_id = t.id FROM tags t WHERE t.name = pt.tag;
+
+ALTER TABLE product_tags ALTER COLUMN tag_id SET NOT NULL;
+
+-- Tag -> products lookups (the posting list in SQL form), index-only for the filter subquery
+CREATE INDEX idx_product_tags_tag_id_product_id ON product_tags(tag_id, product_id);
+
+DROP INDEX idx_product_tags_tag;
@@ -0,0 +1,32 @@
+-- Per-product aggregate of approved reviews, maintained incrementally by the review services
+
+CREATE TABLE product_rating_stats (
+    product_id BIGINT PRIMARY KEY REFERENCES products(id) ON DELETE CASCADE,
+    rating_count INTEGER NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    stars_1 INTEGER NOT NULL DEFAULT 0,
+    stars_2 INTEGER NOT NULL DEFAULT 0,
+    stars_3 INTEGER NOT NULL DEFAULT 0,
+    stars_4 INTEGER NOT NULL DEFAULT 0,
+    stars_5 INTEGER NOT NULL DEFAULT 0,
+    average_rating NUMERIC(3, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO product_rating_stats (product_id, rating_count, rating_sum,
+        stars_1, stars_2, stars_3, stars_4, stars_5, average_rating)
+SELECT product_id,
+       count(*),
+       sum(rating),
+       count(*) FILTER (WHERE rating = 1),
+       count(*) FILTER (WHERE rating = 2),
+       count(*) FILTER (WHERE rating = 3),
+       count(*) FILTER (WHERE rating = 4),
+       count(*) FILTER (WHERE rating = 5),
+       round(avg(rating), 2)
+FROM reviews
+WHERE status = 'APPROVED'
+GROUP BY product_id;
+
+-- Top-rated rail reads the first rows of this index
+CREATE INDEX idx_product_rating_stats_average ON product_rating_stats(average_rating DESC, rating_count DESC);
@@ -0,0 +1,7 @@
+-- Trigram indexes for typo-tolerant search. They are expression indexes on
+-- lower(...) so they also serve the lower(title) LIKE '%keyword%' filter.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_products_title_trgm ON products USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX idx_products_subtitle_trgm ON products USING gin (lower(subtitle) gin_trgm_ops);
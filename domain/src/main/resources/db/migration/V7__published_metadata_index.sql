@@ -0,0 +1,9 @@
+-- Metadata filters are rewritten to containment (metadata @> '{"grade": "Grade 4"}').
+-- Searches only ever look at published products, so index just those rows;
+-- jsonb_path_ops is smaller and faster than the default opclass for @>.
+
+CREATE INDEX idx_products_published_metadata ON products USING GIN (metadata jsonb_path_ops)
+    WHERE status = 'PUBLISHED';
+
+-- Superseded by the partial index above
+DROP INDEX idx_products_metadata;
@@ -0,0 +1,21 @@
+-- One row per product a user owns, so download authorization is a primary
+-- key probe instead of a walk over the user's orders.
+
+CREATE TABLE user_entitlements (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    order_id BIGINT NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    granted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, product_id)
+);
+
+-- Backfill from historical paid orders; the earliest purchase of a product wins
+INSERT INTO user_entitlements (user_id, product_id, order_id, granted_at)
+SELECT DISTINCT ON (o.buyer_id, oi.product_id)
+       o.buyer_id, oi.product_id, o.id, coalesce(o.paid_at, o.created_at)
+FROM orders o
+JOIN order_items oi ON oi.order_id = o.id
+WHERE o.status = 'PAID' AND o.buyer_id IS NOT NULL AND oi.product_id IS NOT NULL
+ORDER BY o.buyer_id, oi.product_id, coalesce(o.paid_at, o.created_at), o.id;
+
+CREATE INDEX idx_user_entitlements_order_id ON user_entitlements(order_id);
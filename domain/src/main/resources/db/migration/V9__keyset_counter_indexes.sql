@@ -0,0 +1,10 @@
+-- Popularity and rating listings sort on the counter and rating tables joined
+-- by product id, so keyset pages seek on (value, product_id) there.
+-- Every product gets a rating row (as it already has a counters row) so the
+-- join is inner and unrated products still sort, at 0.
+
+INSERT INTO product_rating_stats (product_id)
+SELECT id FROM products
+ON CONFLICT (product_id) DO NOTHING;
+
+CREATE INDEX idx_product_rating_stats_average_id ON product_rating_stats(average_rating DESC, product_id DESC);
@@ -0,0 +1,17 @@
+package com.wrightlabs.marketplace.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "download-recorder")
+@Data
+public class DownloadRecorderProperties {
+    private int queueCapacity = 10_000;
+    private int batchSize = 500;
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private Duration shutdownFlushTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,18 @@
+package com.wrightlabs.marketplace.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "entitlements")
+@Data
+public class EntitlementProperties {
+    private long cacheSize = 50_000;
+    private Duration cacheIdleTimeout = Duration.ofMinutes(30);
+    private long bloomExpectedInsertions = 1_000_000;
+    private double bloomFalsePositiveRate = 0.01;
+    private Duration bloomRebuildInterval = Duration.ofHours(6);
+}
@@ -0,0 +1,45 @@
+package com.wrightlabs.marketplace.payment.dto;
+
+import com.wrightlabs.marketplace.domain.entity.ProductFile;
+import com.wrightlabs.marketplace.storage.service.BundleService;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A buyer's "download all" request, authorized and ready to serve either
+ * as a redirect to a stored archive or as a ZIP streamed on the fly. Busy
+ * when it would have to be streamed but too many archives are being built.
+ */
+@Value
+public class ProductBundle {
+
+    String archiveName;
+    List<ProductFile> files;
+
+    /** Presigned URL of the stored archive, or {@code null} if it has to be streamed. */
+    String cachedUrl;
+
+    /** Build slot held for streaming, freed once written; {@code null} if cached or busy. */
+    BundleService.Slot slot;
+
+    public static ProductBundle cached(String archiveName, List<ProductFile> files, String cachedUrl) {
+        return new ProductBundle(archiveName, files, cachedUrl, null);
+    }
+
+    public static ProductBundle streamed(String archiveName, List<ProductFile> files, BundleService.Slot slot) {
+        return new ProductBundle(archiveName, files, null, slot);
+    }
+
+    public static ProductBundle busy(String archiveName, List<ProductFile> files) {
+        return new ProductBundle(archiveName, files, null, null);
+    }
+
+    public boolean isCached() {
+        return cachedUrl != null;
+    }
+
+    public boolean isBusy() {
+        return cachedUrl == null && slot == null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.wrightlabs.marketplace.payment.event;
+
+import lombok.Value;
+
+/**
+ * Published when a user gains or loses entitlements (an order is paid or
+ * refunded). Cached ownership listens for it after the transaction commits.
+ */
+@Value
+public class EntitlementsChangedEvent {
+
+    Long userId;
+}
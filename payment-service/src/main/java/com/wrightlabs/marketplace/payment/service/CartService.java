@@ -31,10 +31,10 @@ public class CartService {
         Cart cart;
 
         if (user != null) {
-            cart = cartRepository.findByUserId(user.getId())
+            cart = cartRepository.findWithItemsByUserId(user.getId())
                     .orElseGet(() -> createCart(user, null));
         } else {
-            cart = cartRepository.findBySessionId(sessionId)
+            cart = cartRepository.findWithItemsBySessionId(sessionId)
                     .orElseGet(() -> createCart(null, sessionId));
         }
 
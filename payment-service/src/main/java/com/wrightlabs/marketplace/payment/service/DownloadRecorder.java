@@ -0,0 +1,166 @@
+package com.wrightlabs.marketplace.payment.service;
+
+import com.wrightlabs.marketplace.payment.config.DownloadRecorderProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind log of file downloads. Requests only enqueue an event; a
+ * single background thread drains the bounded queue and writes
+ * {@code downloads} rows as JDBC batches, so the audit insert never sits on
+ * the download redirect.
+ *
+ * The log is best-effort: when the queue is full new events are dropped
+ * rather than slowing the request down, a batch that fails to write is
+ * dropped after being logged, and anything still queued when the shutdown
+ * flush times out is lost. Every drop is counted.
+ */
+@Component
+@Slf4j
+public class DownloadRecorder {
+
+    private static final String INSERT_DOWNLOAD = "INSERT INTO downloads "
+            + "(order_id, product_id, user_id, file_key, ip_address, downloaded_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_IP_LENGTH = 45;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DownloadRecorderProperties properties;
+    private final BlockingQueue<DownloadEvent> queue;
+    private final Thread writer;
+    private final Counter written;
+    private final Counter droppedQueueFull;
+    private final Counter droppedWriteFailed;
+    private final Counter droppedShutdown;
+
+    private volatile boolean running = true;
+    private volatile long stopDeadlineNanos;
+
+    public DownloadRecorder(JdbcTemplate jdbcTemplate, DownloadRecorderProperties properties,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.writer = new Thread(this::drainLoop, "download-recorder");
+        this.writer.setDaemon(true);
+
+        Gauge.builder("downloads.recorder.queued", queue, BlockingQueue::size)
+                .description("Download events waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("downloads.recorder.capacity.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots before new download events are dropped")
+                .register(meterRegistry);
+        this.written = Counter.builder("downloads.recorder.written")
+                .description("Download events written to the database")
+                .register(meterRegistry);
+        this.droppedQueueFull = dropped(meterRegistry, "queue_full");
+        this.droppedWriteFailed = dropped(meterRegistry, "write_failed");
+        this.droppedShutdown = dropped(meterRegistry, "shutdown");
+    }
+
+    /**
+     * Queue a download for the audit log. Never blocks.
+     */
+    public void record(Long userId, Long productId, Long orderId, String fileKey, String ipAddress) {
+        DownloadEvent event = new DownloadEvent(orderId, productId, userId, fileKey,
+                truncate(ipAddress), LocalDateTime.now());
+        if (!queue.offer(event)) {
+            droppedQueueFull.increment();
+            log.debug("Download queue full, dropped event for user {} product {}", userId, productId);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopDeadlineNanos = System.nanoTime() + properties.getShutdownFlushTimeout().toNanos();
+        running = false;
+        writer.join(properties.getShutdownFlushTimeout().plus(properties.getPollInterval()).toMillis());
+
+        int remaining = queue.size();
+        if (remaining > 0) {
+            droppedShutdown.increment(remaining);
+            log.warn("Dropped {} queued download events at shutdown", remaining);
+        }
+    }
+
+    private void drainLoop() {
+        List<DownloadEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || (!queue.isEmpty() && System.nanoTime() - stopDeadlineNanos < 0)) {
+            try {
+                DownloadEvent first = queue.poll(properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Whatever else queued up meanwhile goes into the same batch
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in download recorder", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<DownloadEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (DownloadEvent event : batch) {
+            rows.add(new Object[] { event.getOrderId(), event.getProductId(), event.getUserId(),
+                    event.getFileKey(), event.getIpAddress(), event.getDownloadedAt() });
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_DOWNLOAD, rows);
+            written.increment(rows.size());
+        } catch (DataAccessException e) {
+            droppedWriteFailed.increment(rows.size());
+            log.warn("Could not write {} download events, dropping them: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("downloads.recorder.dropped")
+                .description("Download events that were never written")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String truncate(String ipAddress) {
+        if (ipAddress == null || ipAddress.length() <= MAX_IP_LENGTH) {
+            return ipAddress;
+        }
+        return ipAddress.substring(0, MAX_IP_LENGTH);
+    }
+
+    @Value
+    private static class DownloadEvent {
+        Long orderId;
+        Long productId;
+        Long userId;
+        String fileKey;
+        String ipAddress;
+        LocalDateTime downloadedAt;
+    }
+}
@@ -0,0 +1,208 @@
+package com.wrightlabs.marketplace.payment.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.wrightlabs.marketplace.domain.entity.UserEntitlement;
+import com.wrightlabs.marketplace.domain.repository.UserEntitlementRepository;
+import com.wrightlabs.marketplace.payment.config.EntitlementProperties;
+import com.wrightlabs.marketplace.payment.event.EntitlementsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Product ownership answered from memory. Recently active users' owned
+ * product ids (and the order behind each) are cached as sorted primitive
+ * arrays in a size-bounded cache; a global Bloom filter over all
+ * (user, product) entitlements answers "definitely not owned" without
+ * loading anything.
+ *
+ * Grants reach the Bloom filter inside the granting transaction, so it
+ * never misses an entitlement; per-user entries are dropped after
+ * payments and refunds commit. Revoked pairs stay in the filter (as false
+ * positives) until the next scheduled rebuild.
+ *
+ * A grant recorded before a rebuild's scan whose transaction commits after
+ * it is in neither scan, so grants from the last few minutes are kept and
+ * replayed into the rebuilt filter as it is swapped in.
+ */
+@Component
+@Slf4j
+public class EntitlementCache {
+
+    private static final String ALL_PAIRS = "SELECT user_id, product_id FROM user_entitlements";
+    // granted_at is written from the database clock in UTC, so the window is measured on it too
+    private static final String PAIRS_SINCE = "SELECT user_id, product_id FROM user_entitlements "
+            + "WHERE granted_at >= (now() AT TIME ZONE 'UTC') - make_interval(secs => ?)";
+    private static final int FETCH_SIZE = 10_000;
+    // Longest a granting transaction is expected to stay open
+    private static final Duration GRANT_WINDOW = Duration.ofMinutes(5);
+
+    private final UserEntitlementRepository userEntitlementRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntitlementProperties properties;
+    private final LoadingCache<Long, OwnedProducts> cache;
+    private final Counter bloomNegatives;
+
+    private volatile PairBloomFilter bloomFilter;
+    // Grants from the last GRANT_WINDOW, oldest first; guarded by itself, as is swapping the filter
+    private final Deque<RecentGrant> recentGrants = new ArrayDeque<>();
+
+    public EntitlementCache(UserEntitlementRepository userEntitlementRepository, JdbcTemplate jdbcTemplate,
+            EntitlementProperties properties, MeterRegistry meterRegistry) {
+        this.userEntitlementRepository = userEntitlementRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterAccess(properties.getCacheIdleTimeout())
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "entitlements.users");
+        this.bloomNegatives = Counter.builder("entitlements.bloom.negatives")
+                .description("Ownership checks answered by the Bloom filter alone")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Order through which the user owns the product, if they own it.
+     */
+    public OptionalLong orderFor(Long userId, Long productId) {
+        PairBloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(userId, productId)) {
+            bloomNegatives.increment();
+            return OptionalLong.empty();
+        }
+        return cache.get(userId).orderFor(productId);
+    }
+
+    /**
+     * Record new grants in the Bloom filter. Call inside the granting
+     * transaction, before anyone can see the grants.
+     */
+    void granted(Long userId, Collection<Long> productIds) {
+        long now = System.nanoTime();
+        synchronized (recentGrants) {
+            PairBloomFilter filter = bloomFilter;
+            for (Long productId : productIds) {
+                if (filter != null) {
+                    filter.put(userId, productId);
+                }
+                recentGrants.addLast(new RecentGrant(userId, productId, now));
+            }
+            pruneRecentGrants(now);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntitlementsChanged(EntitlementsChangedEvent event) {
+        cache.invalidate(event.getUserId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuildBloomFilter();
+    }
+
+    /**
+     * Rebuild the filter from the table, sized for the current row count,
+     * dropping revoked pairs and keeping the false positive rate on target
+     * as entitlements grow.
+     */
+    @Scheduled(fixedDelayString = "${entitlements.bloom-rebuild-interval:PT6H}",
+            initialDelayString = "${entitlements.bloom-rebuild-interval:PT6H}")
+    public synchronized void rebuildBloomFilter() {
+        long start = System.currentTimeMillis();
+        long rows = userEntitlementRepository.count();
+        PairBloomFilter rebuilt = new PairBloomFilter(
+                Math.max(properties.getBloomExpectedInsertions(), rows * 2),
+                properties.getBloomFalsePositiveRate());
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(ALL_PAIRS);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> rebuilt.put(resultSet.getLong(1), resultSet.getLong(2)));
+            // Grants that committed after the scan began
+            jdbcTemplate.query(PAIRS_SINCE,
+                    (RowCallbackHandler) resultSet -> rebuilt.put(resultSet.getLong(1), resultSet.getLong(2)),
+                    GRANT_WINDOW.toSeconds());
+            // And grants whose transactions may still be open; none can be recorded between replay and swap
+            synchronized (recentGrants) {
+                pruneRecentGrants(System.nanoTime());
+                for (RecentGrant grant : recentGrants) {
+                    rebuilt.put(grant.getUserId(), grant.getProductId());
+                }
+                bloomFilter = rebuilt;
+            }
+            log.info("Built entitlement Bloom filter over {} entitlements in {} ms", rows,
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // Without a complete filter every check goes to the per-user cache
+            log.error("Failed to build entitlement Bloom filter", e);
+        }
+    }
+
+    private void pruneRecentGrants(long now) {
+        while (!recentGrants.isEmpty() && now - recentGrants.peekFirst().getGrantedAtNanos() > GRANT_WINDOW.toNanos()) {
+            recentGrants.removeFirst();
+        }
+    }
+
+    private OwnedProducts load(Long userId) {
+        List<UserEntitlement> entitlements = userEntitlementRepository.findByUserIdOrderByProductIdAsc(userId);
+        long[] productIds = new long[entitlements.size()];
+        long[] orderIds = new long[entitlements.size()];
+        for (int i = 0; i < entitlements.size(); i++) {
+            productIds[i] = entitlements.get(i).getProductId();
+            orderIds[i] = entitlements.get(i).getOrderId();
+        }
+        return new OwnedProducts(productIds, orderIds);
+    }
+
+    /**
+     * One user's entitlements: product ids ascending, with the order for
+     * each at the same index.
+     */
+    private static final class OwnedProducts {
+
+        private final long[] productIds;
+        private final long[] orderIds;
+
+        OwnedProducts(long[] productIds, long[] orderIds) {
+            this.productIds = productIds;
+            this.orderIds = orderIds;
+        }
+
+        OptionalLong orderFor(long productId) {
+            int index = Arrays.binarySearch(productIds, productId);
+            return index >= 0 ? OptionalLong.of(orderIds[index]) : OptionalLong.empty();
+        }
+    }
+
+    @Value
+    private static class RecentGrant {
+        Long userId;
+        Long productId;
+        long grantedAtNanos;
+    }
+}
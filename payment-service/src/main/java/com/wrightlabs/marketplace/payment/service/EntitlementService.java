@@ -0,0 +1,72 @@
+package com.wrightlabs.marketplace.payment.service;
+
+import com.wrightlabs.marketplace.domain.entity.Order;
+import com.wrightlabs.marketplace.domain.repository.UserEntitlementRepository;
+import com.wrightlabs.marketplace.payment.event.EntitlementsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.OptionalLong;
+
+/**
+ * Who owns what. Entitlements are granted from paid orders, revoked on
+ * refund, and checked through {@link EntitlementCache}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class EntitlementService {
+
+    private final UserEntitlementRepository userEntitlementRepository;
+    private final EntitlementCache entitlementCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Grant the buyer every product in an order that has just been paid.
+     * The order's PAID status must already be flushed.
+     */
+    @Transactional
+    public void grantForPaidOrder(Order order) {
+        if (order.getBuyer() == null) {
+            return;
+        }
+        Long buyerId = order.getBuyer().getId();
+        int granted = userEntitlementRepository.grantForOrder(order.getId());
+        entitlementCache.granted(buyerId, userEntitlementRepository.findProductIdsByOrderId(order.getId()));
+        eventPublisher.publishEvent(new EntitlementsChangedEvent(buyerId));
+        log.info("Granted {} entitlements for order {}", granted, order.getOrderNumber());
+    }
+
+    /**
+     * Take back what a refunded order granted, keeping products the buyer
+     * also paid for in another order. The order's REFUNDED status must
+     * already be flushed.
+     */
+    @Transactional
+    public void revokeForRefundedOrder(Order order) {
+        if (order.getBuyer() == null) {
+            return;
+        }
+        Long buyerId = order.getBuyer().getId();
+        int revoked = userEntitlementRepository.revokeForOrder(order.getId());
+        int regranted = userEntitlementRepository.grantForBuyer(buyerId);
+        eventPublisher.publishEvent(new EntitlementsChangedEvent(buyerId));
+        log.info("Revoked {} entitlements for refunded order {} ({} kept through other orders)",
+                revoked, order.getOrderNumber(), regranted);
+    }
+
+    /**
+     * Order through which the user owns the product, if they own it.
+     */
+    public OptionalLong orderFor(Long userId, Long productId) {
+        return entitlementCache.orderFor(userId, productId);
+    }
+
+    public boolean owns(Long userId, Long productId) {
+        return orderFor(userId, productId).isPresent();
+    }
+}
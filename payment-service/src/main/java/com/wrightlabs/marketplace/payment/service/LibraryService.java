@@ -1,21 +1,24 @@
 package com.wrightlabs.marketplace.payment.service;
 
-import com.wrightlabs.marketplace.domain.entity.Download;
-import com.wrightlabs.marketplace.domain.entity.Order;
 import com.wrightlabs.marketplace.domain.entity.Product;
 import com.wrightlabs.marketplace.domain.entity.ProductFile;
-import com.wrightlabs.marketplace.domain.repository.DownloadRepository;
-import com.wrightlabs.marketplace.domain.repository.OrderRepository;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
 import com.wrightlabs.marketplace.domain.repository.ProductFileRepository;
+import com.wrightlabs.marketplace.domain.repository.ProductRepository;
+import com.wrightlabs.marketplace.payment.dto.ProductBundle;
+import com.wrightlabs.marketplace.storage.service.BundleService;
 import com.wrightlabs.marketplace.storage.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,37 +27,39 @@ import java.util.stream.Collectors;
 @Slf4j
 public class LibraryService {
 
-    private final OrderRepository orderRepository;
+    private final EntitlementService entitlementService;
     private final ProductFileRepository productFileRepository;
-    private final DownloadRepository downloadRepository;
+    private final ProductRepository productRepository;
     private final FileStorageService fileStorageService;
+    private final DownloadRecorder downloadRecorder;
+    private final BundleService bundleService;
 
-    public List<Product> getUserLibrary(Long userId) {
-        // Get all paid orders for user
-        List<Order> paidOrders = orderRepository.findByBuyerId(userId, Pageable.unpaged())
-                .getContent()
-                .stream()
-                .filter(order -> order.getStatus() == Order.OrderStatus.PAID)
-                .collect(Collectors.toList());
-
-        // Extract unique products from all order items
-        return paidOrders.stream()
-                .flatMap(order -> order.getItems().stream())
-                .map(item -> item.getProduct())
-                .distinct()
-                .collect(Collectors.toList());
+    public List<ProductCard> getUserLibrary(Long userId) {
+        // Owned products, most recently bought first, as cards in one statement
+        return productRepository.findEntitledCards(userId);
+    }
+
+    /**
+     * Downloadable files of every product in a library, keyed by product id,
+     * loaded together rather than per product.
+     */
+    public Map<Long, List<ProductFile>> getLibraryFiles(List<ProductCard> library) {
+        if (library.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> productIds = library.stream().map(ProductCard::getId).toList();
+        return productFileRepository.findByProductIdInOrderBySortOrderAsc(productIds).stream()
+                .collect(Collectors.groupingBy(file -> file.getProduct().getId()));
     }
 
     public boolean userOwnsProduct(Long userId, Long productId) {
-        List<Product> library = getUserLibrary(userId);
-        return library.stream().anyMatch(p -> p.getId().equals(productId));
+        return entitlementService.owns(userId, productId);
     }
 
-    public String generateDownloadUrl(Long userId, Long productId, Long fileId) {
-        // Verify user owns the product
-        if (!userOwnsProduct(userId, productId)) {
-            throw new IllegalArgumentException("You do not own this product");
-        }
+    public String generateDownloadUrl(Long userId, Long productId, Long fileId, String clientIp) {
+        // Verify user owns the product; answered from memory for warm users
+        long orderId = entitlementService.orderFor(userId, productId)
+                .orElseThrow(() -> new IllegalArgumentException("You do not own this product"));
 
         ProductFile file = productFileRepository.findById(fileId)
                 .orElseThrow(() -> new IllegalArgumentException("File not found"));
@@ -66,44 +71,73 @@ public class LibraryService {
         // Generate presigned URL
         String downloadUrl = fileStorageService.generateDownloadUrl(file.getFileKey());
 
-        // Record download
-        recordDownload(userId, productId, file.getFileKey());
+        // Queued for the audit log; written in the background
+        downloadRecorder.record(userId, productId, orderId, file.getFileKey(), clientIp);
 
         log.info("Generated download URL for user {} product {} file {}", userId, productId, fileId);
         return downloadUrl;
     }
 
-    @Transactional
-    public void recordDownload(Long userId, Long productId, String fileKey) {
-        // Find the order for this user and product
-        Order order = orderRepository.findByBuyerId(userId, Pageable.unpaged())
-                .getContent()
-                .stream()
-                .filter(o -> o.getStatus() == Order.OrderStatus.PAID)
-                .filter(o -> o.getItems().stream()
-                        .anyMatch(item -> item.getProduct().getId().equals(productId)))
-                .findFirst()
-                .orElse(null);
-
-        if (order != null) {
-            Product product = order.getItems().stream()
-                    .map(com.wrightlabs.marketplace.domain.entity.OrderItem::getProduct)
-                    .filter(p -> p.getId().equals(productId))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("Product not found in order"));
-
-            Download download = Download.builder()
-                    .order(order)
-                    .product(product)
-                    .user(order.getBuyer())
-                    .fileKey(fileKey)
-                    .build();
-
-            downloadRepository.save(download);
+    /**
+     * Authorize downloading all of a product's files at once. Serves the
+     * stored archive if there is one, and otherwise reserves a slot to
+     * stream it and starts storing one for next time (when bundle caching is
+     * enabled). Nothing is recorded when no slot is free.
+     */
+    public ProductBundle prepareBundle(Long userId, Long productId, String clientIp) {
+        long orderId = entitlementService.orderFor(userId, productId)
+                .orElseThrow(() -> new IllegalArgumentException("You do not own this product"));
+
+        List<ProductFile> files = productFileRepository.findByProductIdOrderBySortOrderAsc(productId);
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("This product has no files");
+        }
+        String title = productRepository.findById(productId)
+                .map(Product::getTitle)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+
+        String bundleKey = bundleService.bundleKey(productId, files);
+        ProductBundle bundle;
+        if (bundleService.isCached(bundleKey)) {
+            bundle = ProductBundle.cached(archiveName(title), files,
+                    fileStorageService.generateDownloadUrl(bundleKey));
+        } else {
+            Optional<BundleService.Slot> slot = bundleService.tryReserve();
+            if (slot.isEmpty()) {
+                log.info("No bundle slot free for user {} product {}", userId, productId);
+                return ProductBundle.busy(archiveName(title), files);
+            }
+            bundle = ProductBundle.streamed(archiveName(title), files, slot.get());
+            bundleService.cacheBundle(bundleKey, files);
+        }
+
+        // One audit row per file, as if each had been downloaded separately
+        for (ProductFile file : files) {
+            downloadRecorder.record(userId, productId, orderId, file.getFileKey(), clientIp);
+        }
+
+        log.info("Prepared bundle of {} files for user {} product {} (cached: {})",
+                files.size(), userId, productId, bundle.isCached());
+        return bundle;
+    }
+
+    /**
+     * Stream a prepared bundle as a ZIP and free its slot. Runs outside any
+     * transaction so a slow client never holds a database connection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void writeBundle(ProductBundle bundle, OutputStream out) throws IOException {
+        try (BundleService.Slot slot = bundle.getSlot()) {
+            bundleService.writeBundle(bundle.getFiles(), out);
         }
     }
 
     public List<ProductFile> getProductFiles(Long productId) {
         return productFileRepository.findByProductId(productId);
     }
+
+    private String archiveName(String title) {
+        String name = title.replaceAll("[^a-zA-Z0-9 ._-]", "").trim();
+        return (name.isEmpty() ? "download" : name) + ".zip";
+    }
 }
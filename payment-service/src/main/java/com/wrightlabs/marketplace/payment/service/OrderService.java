@@ -24,6 +24,7 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final EntitlementService entitlementService;
 
     @Value("${platform.commission-rate:0.15}")
     private Double commissionRate;
@@ -87,15 +88,35 @@ public class OrderService {
 
         order.setStatus(Order.OrderStatus.PAID);
         order.setPaidAt(LocalDateTime.now());
-        orderRepository.save(order);
+        orderRepository.saveAndFlush(order);
+        entitlementService.grantForPaidOrder(order);
 
         log.info("Order {} marked as PAID", orderNumber);
 
         // TODO: Trigger event for digital delivery (increment product purchases)
     }
 
+    /**
+     * Record a refund issued with the payment provider and take back what
+     * the order granted.
+     */
+    @Transactional
+    public void markOrderAsRefunded(String orderNumber) {
+        Order order = orderRepository.findByOrderNumber(orderNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        if (order.getStatus() != Order.OrderStatus.PAID) {
+            throw new IllegalArgumentException("Only paid orders can be refunded");
+        }
+
+        order.setStatus(Order.OrderStatus.REFUNDED);
+        orderRepository.saveAndFlush(order);
+        entitlementService.revokeForRefundedOrder(order);
+
+        log.info("Order {} marked as REFUNDED", orderNumber);
+    }
+
     public Order getOrderByNumber(String orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber)
+        return orderRepository.findWithItemsByOrderNumber(orderNumber)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
     }
 
@@ -23,6 +23,7 @@ public class PayFastService {
 
     private final PayFastProperties payFastProperties;
     private final OrderRepository orderRepository;
+    private final EntitlementService entitlementService;
 
     /**
      * Generate PayFast payment form data for an order
@@ -107,9 +108,9 @@ public class PayFastService {
             order.setStatus(Order.OrderStatus.PAID);
             order.setPaidAt(LocalDateTime.now());
             order.setPaymentProviderRef(payFastPaymentId);
-            orderRepository.save(order);
+            orderRepository.saveAndFlush(order);
+            entitlementService.grantForPaidOrder(order);
 
-            // TODO: Trigger digital delivery (will be handled by event listener)
             log.info("Order {} marked as PAID", orderNumber);
         } else {
             order.setStatus(Order.OrderStatus.FAILED);
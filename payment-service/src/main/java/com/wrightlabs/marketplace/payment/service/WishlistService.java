@@ -3,6 +3,7 @@ package com.wrightlabs.marketplace.payment.service;
 import com.wrightlabs.marketplace.domain.entity.Product;
 import com.wrightlabs.marketplace.domain.entity.User;
 import com.wrightlabs.marketplace.domain.entity.Wishlist;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
 import com.wrightlabs.marketplace.domain.repository.ProductRepository;
 import com.wrightlabs.marketplace.domain.repository.WishlistRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +12,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -50,10 +50,8 @@ public class WishlistService {
         log.info("Removed product {} from wishlist for user {}", productId, user.getEmail());
     }
 
-    public List<Product> getUserWishlist(Long userId) {
-        return wishlistRepository.findByUserId(userId).stream()
-                .map(Wishlist::getProduct)
-                .collect(Collectors.toList());
+    public List<ProductCard> getUserWishlist(Long userId) {
+        return productRepository.findWishlistCards(userId);
     }
 
     public boolean isInWishlist(Long userId, Long productId) {
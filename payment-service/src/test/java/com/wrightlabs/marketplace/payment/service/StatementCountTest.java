@@ -0,0 +1,180 @@
+package com.wrightlabs.marketplace.payment.service;
+
+import com.wrightlabs.marketplace.domain.entity.Cart;
+import com.wrightlabs.marketplace.domain.entity.Order;
+import com.wrightlabs.marketplace.domain.entity.OrderItem;
+import com.wrightlabs.marketplace.domain.entity.ProductFile;
+import com.wrightlabs.marketplace.domain.entity.User;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
+import com.wrightlabs.marketplace.storage.service.BundleService;
+import com.wrightlabs.marketplace.storage.service.FileStorageService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements issued by the order, cart and library loaders, counted with
+ * Hibernate statistics. Each loader reads a fixed number of statements no
+ * matter how many items, products or files it returns; a count that grows
+ * with the seeded rows means an association is loading one row at a time.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import({ OrderService.class, CartService.class, LibraryService.class })
+class StatementCountTest {
+
+    private static final int ITEMS = 5;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private EntitlementService entitlementService;
+    @MockBean
+    private FileStorageService fileStorageService;
+    @MockBean
+    private DownloadRecorder downloadRecorder;
+    @MockBean
+    private BundleService bundleService;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private LibraryService libraryService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private long sellerId;
+    private long buyerId;
+    private long[] productIds;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Seeded over JDBC so nothing is in the persistence context beforehand
+        sellerId = insertUser("seller@example.com", "SELLER");
+        buyerId = insertUser("buyer@example.com", "BUYER");
+        productIds = new long[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            productIds[i] = jdbcTemplate.queryForObject("INSERT INTO products (seller_id, title, price, status) "
+                    + "VALUES (?, ?, 10.00, 'PUBLISHED') RETURNING id", Long.class, sellerId, "Lesson " + i);
+        }
+    }
+
+    @Test
+    void getOrderByNumberLoadsItemsAndProductsInOneStatement() {
+        insertPaidOrder("ORD-TEST-1");
+
+        statistics.clear();
+        Order order = orderService.getOrderByNumber("ORD-TEST-1");
+        for (OrderItem item : order.getItems()) {
+            item.getProduct().getTitle();
+        }
+
+        assertThat(order.getItems()).hasSize(ITEMS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getOrCreateCartLoadsItemsAndProductsInOneStatement() {
+        long cartId = jdbcTemplate.queryForObject("INSERT INTO carts (user_id, session_id, expires_at) "
+                + "VALUES (?, 'session-1', now() + interval '30 days') RETURNING id", Long.class, buyerId);
+        for (long productId : productIds) {
+            jdbcTemplate.update("INSERT INTO cart_items (cart_id, product_id) VALUES (?, ?)", cartId, productId);
+        }
+        User buyer = User.builder().id(buyerId).build();
+
+        statistics.clear();
+        Cart cart = cartService.getOrCreateCart(buyer, null);
+        BigDecimal total = cartService.calculateCartTotal(cart);
+
+        assertThat(total).isEqualByComparingTo("50.00");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void guestCartLoadsItemsAndProductsInOneStatement() {
+        long cartId = jdbcTemplate.queryForObject("INSERT INTO carts (session_id, expires_at) "
+                + "VALUES ('guest-session', now() + interval '30 days') RETURNING id", Long.class);
+        for (long productId : productIds) {
+            jdbcTemplate.update("INSERT INTO cart_items (cart_id, product_id) VALUES (?, ?)", cartId, productId);
+        }
+
+        statistics.clear();
+        Cart cart = cartService.getOrCreateCart(null, "guest-session");
+        BigDecimal total = cartService.calculateCartTotal(cart);
+
+        assertThat(total).isEqualByComparingTo("50.00");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void libraryLoadsCardsAndFilesInOneStatementEach() {
+        long orderId = insertPaidOrder("ORD-TEST-2");
+        for (long productId : productIds) {
+            jdbcTemplate.update("INSERT INTO user_entitlements (user_id, product_id, order_id) VALUES (?, ?, ?)",
+                    buyerId, productId, orderId);
+            for (int file = 0; file < 2; file++) {
+                jdbcTemplate.update("INSERT INTO product_files (product_id, filename, file_key, file_size, sort_order) "
+                        + "VALUES (?, ?, ?, 1024, ?)", productId, "file-" + file + ".pdf",
+                        "products/" + productId + "/file-" + file + ".pdf", file);
+            }
+        }
+
+        statistics.clear();
+        List<ProductCard> library = libraryService.getUserLibrary(buyerId);
+        long libraryStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Map<Long, List<ProductFile>> files = libraryService.getLibraryFiles(library);
+        long filesStatements = statistics.getPrepareStatementCount();
+
+        assertThat(library).hasSize(ITEMS);
+        assertThat(files).hasSize(ITEMS).allSatisfy((productId, productFiles) -> assertThat(productFiles).hasSize(2));
+        assertThat(libraryStatements).isEqualTo(1);
+        assertThat(filesStatements).isEqualTo(1);
+    }
+
+    private long insertUser(String email, String role) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (email, password_hash, role) VALUES (?, 'x', ?) "
+                + "RETURNING id", Long.class, email, role);
+    }
+
+    private long insertPaidOrder(String orderNumber) {
+        long orderId = jdbcTemplate.queryForObject("INSERT INTO orders "
+                + "(order_number, buyer_id, buyer_email, total_amount, status, paid_at) "
+                + "VALUES (?, ?, 'buyer@example.com', ?, 'PAID', now()) RETURNING id", Long.class,
+                orderNumber, buyerId, BigDecimal.TEN.multiply(BigDecimal.valueOf(ITEMS)));
+        for (long productId : productIds) {
+            jdbcTemplate.update("INSERT INTO order_items "
+                    + "(order_id, product_id, seller_id, product_title, price, platform_fee, seller_amount) "
+                    + "VALUES (?, ?, ?, 'Lesson', 10.00, 1.50, 8.50)", orderId, productId, sellerId);
+        }
+        return orderId;
+    }
+}
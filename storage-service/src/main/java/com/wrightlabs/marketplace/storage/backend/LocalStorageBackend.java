@@ -0,0 +1,203 @@
+package com.wrightlabs.marketplace.storage.backend;
+
+import com.wrightlabs.marketplace.storage.config.StorageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Objects as files under {@code storage.local-root}, for small installs and
+ * runs without network access. Writes go through a {@link FileChannel} into
+ * a temporary file that is renamed into place, so readers never see a
+ * partial object.
+ *
+ * Downloads are app URLs under {@value #DOWNLOAD_PATH} carrying an expiry
+ * and an HMAC-SHA256 signature over the key and expiry, the local stand-in
+ * for a presigned URL. Without {@code storage.local-signing-key} a random key
+ * is generated, so links do not survive a restart or work across instances.
+ */
+@Component
+@ConditionalOnProperty(prefix = "storage", name = "type", havingValue = "local")
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    public static final String DOWNLOAD_PATH = "/files/";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final SecretKeySpec signingKey;
+
+    public LocalStorageBackend(StorageProperties storageProperties) throws IOException {
+        this.root = Path.of(storageProperties.getLocalRoot()).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        byte[] key;
+        if (storageProperties.getLocalSigningKey() == null || storageProperties.getLocalSigningKey().isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("No storage.local-signing-key set; download links will stop working on restart");
+        } else {
+            key = storageProperties.getLocalSigningKey().getBytes(StandardCharsets.UTF_8);
+        }
+        this.signingKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        log.info("Storing files under {}", root);
+    }
+
+    @Override
+    public void put(String key, String contentType, InputStream in, long size) throws IOException {
+        Path target = resolve(key);
+        Path temp = createTemp(target);
+        try {
+            // Not closed: closing the channel would close the caller's stream
+            ReadableByteChannel source = Channels.newChannel(in);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < size) {
+                    long transferred = channel.transferFrom(source, position, size - position);
+                    if (transferred == 0) {
+                        throw new EOFException("Upload of " + key + " ended before " + size + " bytes");
+                    }
+                    position += transferred;
+                }
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void write(String key, String contentType, ObjectWriter writer) throws IOException {
+        Path target = resolve(key);
+        Path temp = createTemp(target);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                    OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel),
+                            WRITE_BUFFER_SIZE)) {
+                writer.writeTo(out);
+                out.flush();
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new StoredObject(Files.size(path), contentType(path)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String downloadUrl(String key, Duration validFor) {
+        long expires = Instant.now().plus(validFor).getEpochSecond();
+        String path = Arrays.stream(key.split("/"))
+                .map(segment -> UriUtils.encodePathSegment(segment, StandardCharsets.UTF_8))
+                .collect(Collectors.joining("/"));
+        return DOWNLOAD_PATH + path + "?expires=" + expires + "&signature=" + sign(key, expires);
+    }
+
+    /**
+     * The file behind a download URL, if its signature is valid and it has
+     * not expired.
+     */
+    public Optional<Path> resolveSigned(String key, long expires, String signature) {
+        if (expires < Instant.now().getEpochSecond() || signature == null) {
+            return Optional.empty();
+        }
+        byte[] expected = sign(key, expires).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))) {
+            return Optional.empty();
+        }
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public String contentType(Path path) {
+        try {
+            String type = Files.probeContentType(path);
+            return type != null ? type : DEFAULT_CONTENT_TYPE;
+        } catch (IOException e) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+
+    private Path createTemp(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        // Same directory as the target so the final rename is atomic
+        return Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+    }
+
+    private String sign(String key, long expires) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            byte[] signature = mac.doFinal((key + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
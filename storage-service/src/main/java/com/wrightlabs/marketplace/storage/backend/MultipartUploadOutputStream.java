@@ -0,0 +1,121 @@
+package com.wrightlabs.marketplace.storage.backend;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes an object of unknown length to S3 through one reused part buffer,
+ * uploading each part as it fills. Objects smaller than one part go up as a
+ * single put. Nothing is stored unless {@link #complete()} is called; closing
+ * an incomplete stream aborts the upload.
+ */
+final class MultipartUploadOutputStream extends OutputStream {
+
+    // S3 rejects non-final parts smaller than this
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+    private final String contentType;
+    private final byte[] part;
+    private final List<CompletedPart> completedParts = new ArrayList<>();
+
+    private int position;
+    private String uploadId;
+    private boolean completed;
+
+    MultipartUploadOutputStream(S3Client s3Client, String bucket, String key, String contentType, int partSize) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("Part size must be at least " + MIN_PART_SIZE + " bytes");
+        }
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+        this.contentType = contentType;
+        this.part = new byte[partSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position == part.length) {
+            uploadPart();
+        }
+        part[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (position == part.length) {
+                uploadPart();
+            }
+            int chunk = Math.min(length, part.length - position);
+            System.arraycopy(bytes, offset, part, position, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Upload whatever is buffered and make the object visible.
+     */
+    void complete() {
+        if (uploadId == null) {
+            s3Client.putObject(request -> request.bucket(bucket).key(key).contentType(contentType),
+                    bufferedBody());
+        } else {
+            if (position > 0) {
+                uploadPart();
+            }
+            s3Client.completeMultipartUpload(request -> request
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completedParts)));
+        }
+        completed = true;
+    }
+
+    @Override
+    public void close() {
+        if (!completed && uploadId != null) {
+            s3Client.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+        }
+        completed = true;
+    }
+
+    private void uploadPart() {
+        if (uploadId == null) {
+            uploadId = s3Client.createMultipartUpload(request -> request
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType))
+                    .uploadId();
+        }
+        int partNumber = completedParts.size() + 1;
+        UploadPartResponse response = s3Client.uploadPart(request -> request
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) position),
+                bufferedBody());
+        completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+        position = 0;
+    }
+
+    private RequestBody bufferedBody() {
+        // Streams straight from the part buffer rather than copying it
+        return RequestBody.fromInputStream(new ByteArrayInputStream(part, 0, position), position);
+    }
+}
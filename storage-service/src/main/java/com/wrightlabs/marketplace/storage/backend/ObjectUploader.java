@@ -0,0 +1,258 @@
+package com.wrightlabs.marketplace.storage.backend;
+
+import com.wrightlabs.marketplace.storage.config.StorageProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads objects of known size to S3. Small objects go up in one put;
+ * anything from {@code storage.multipart-threshold} up is split into parts
+ * that are uploaded in parallel, up to {@code storage.upload-concurrency}
+ * per object, over the client's connection pool.
+ *
+ * Part buffers come from a pool shared by all uploads, so memory stays at
+ * {@code upload-buffers} x {@code upload-part-size} however many uploads run
+ * at once; the reader waits for a free buffer rather than allocating. A
+ * multipart upload that fails is aborted so no orphaned parts are billed.
+ *
+ * Talks only to {@link S3Client}, so it runs unchanged against MinIO or any
+ * other S3-compatible endpoint set in {@code storage.endpoint}.
+ */
+@Component
+@ConditionalOnExpression("'${storage.type:s3}' != 'local'")
+@Slf4j
+public class ObjectUploader {
+
+    private final S3Client s3Client;
+    private final StorageProperties storageProperties;
+    private final ThreadPoolExecutor partExecutor;
+    private final BlockingQueue<byte[]> buffers;
+    private final AtomicInteger allocatedBuffers = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary throughput;
+    private final Counter uploadedBytes;
+    private final Counter abortedUploads;
+
+    public ObjectUploader(S3Client s3Client, StorageProperties storageProperties, MeterRegistry meterRegistry) {
+        this.s3Client = s3Client;
+        this.storageProperties = storageProperties;
+        this.meterRegistry = meterRegistry;
+        this.buffers = new ArrayBlockingQueue<>(storageProperties.getUploadBuffers());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = storageProperties.getUploadBuffers();
+        // One thread per buffer: a part is only ever queued while it holds one
+        this.partExecutor = new ThreadPoolExecutor(threads, threads,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "s3-upload-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.partExecutor.allowCoreThreadTimeOut(true);
+
+        this.throughput = DistributionSummary.builder("storage.upload.throughput")
+                .description("Upload throughput per object")
+                .baseUnit("bytes_per_second")
+                .register(meterRegistry);
+        this.uploadedBytes = Counter.builder("storage.upload.bytes")
+                .description("Bytes uploaded to storage")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.abortedUploads = Counter.builder("storage.upload.aborted")
+                .description("Multipart uploads aborted after a failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Upload exactly {@code size} bytes from {@code in}. Does not close it.
+     */
+    public void upload(String key, String contentType, InputStream in, long size) throws IOException {
+        boolean multipart = size >= storageProperties.getMultipartThreshold().toBytes();
+        String mode = multipart ? "multipart" : "single";
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            if (multipart) {
+                uploadInParts(key, contentType, in, size);
+            } else {
+                s3Client.putObject(request -> request
+                        .bucket(storageProperties.getBucket())
+                        .key(key)
+                        .contentType(contentType),
+                        RequestBody.fromInputStream(in, size));
+            }
+            outcome = "success";
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("storage.upload")
+                    .description("Time to upload one object")
+                    .tag("mode", mode)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            if ("success".equals(outcome)) {
+                uploadedBytes.increment(size);
+                throughput.record(size * 1e9 / Math.max(elapsed, 1));
+            }
+        }
+        log.debug("Uploaded {} ({} bytes, {}) in {} ms", key, size, mode,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdownNow();
+    }
+
+    private void uploadInParts(String key, String contentType, InputStream in, long size) throws IOException {
+        String bucket = storageProperties.getBucket();
+        int partSize = (int) storageProperties.getUploadPartSize().toBytes();
+        if (partSize < MultipartUploadOutputStream.MIN_PART_SIZE) {
+            throw new IllegalStateException("storage.upload-part-size must be at least 5MB");
+        }
+
+        String uploadId = s3Client.createMultipartUpload(request -> request
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType))
+                .uploadId();
+
+        Semaphore inFlight = new Semaphore(storageProperties.getUploadConcurrency());
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        try {
+            long remaining = size;
+            for (int partNumber = 1; remaining > 0; partNumber++) {
+                int length = (int) Math.min(partSize, remaining);
+                inFlight.acquire();
+                byte[] buffer = acquireBuffer(partSize);
+                try {
+                    if (in.readNBytes(buffer, 0, length) < length) {
+                        throw new EOFException("Upload of " + key + " ended before " + size + " bytes");
+                    }
+                } catch (IOException e) {
+                    releaseBuffer(buffer);
+                    inFlight.release();
+                    throw e;
+                }
+                parts.add(partExecutor.submit(uploadPart(bucket, key, uploadId, partNumber, buffer, length,
+                        inFlight, aborted)));
+                remaining -= length;
+            }
+
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (Future<CompletedPart> part : parts) {
+                completed.add(part.get());
+            }
+            s3Client.completeMultipartUpload(request -> request
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completed)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucket, key, uploadId, parts, aborted);
+            throw new InterruptedIOException("Interrupted while uploading " + key);
+        } catch (ExecutionException e) {
+            abort(bucket, key, uploadId, parts, aborted);
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Could not upload part of " + key, e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abort(bucket, key, uploadId, parts, aborted);
+            throw e;
+        }
+    }
+
+    private Callable<CompletedPart> uploadPart(String bucket, String key, String uploadId,
+            int partNumber, byte[] buffer, int length, Semaphore inFlight, AtomicBoolean aborted) {
+        return () -> {
+            try {
+                if (aborted.get()) {
+                    throw new IllegalStateException("Upload of " + key + " was aborted");
+                }
+                String eTag = s3Client.uploadPart(request -> request
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length))
+                        .eTag();
+                return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+            } finally {
+                releaseBuffer(buffer);
+                inFlight.release();
+            }
+        };
+    }
+
+    private void abort(String bucket, String key, String uploadId, List<Future<CompletedPart>> parts,
+            AtomicBoolean aborted) {
+        // Queued parts skip their upload; every part has to run to hand back its buffer
+        aborted.set(true);
+        for (Future<CompletedPart> part : parts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // Already failed or skipped
+            }
+        }
+        try {
+            s3Client.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+            abortedUploads.increment();
+            log.warn("Aborted multipart upload of {}", key);
+        } catch (RuntimeException e) {
+            log.error("Could not abort multipart upload {} of {}", uploadId, key, e);
+        }
+    }
+
+    private byte[] acquireBuffer(int partSize) throws InterruptedException {
+        byte[] buffer = buffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        int max = storageProperties.getUploadBuffers();
+        if (allocatedBuffers.getAndUpdate(n -> n < max ? n + 1 : n) < max) {
+            return new byte[partSize];
+        }
+        return buffers.take();
+    }
+
+    private void releaseBuffer(byte[] buffer) {
+        buffers.offer(buffer);
+    }
+}
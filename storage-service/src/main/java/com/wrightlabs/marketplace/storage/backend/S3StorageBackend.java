@@ -0,0 +1,124 @@
+package com.wrightlabs.marketplace.storage.backend;
+
+import com.wrightlabs.marketplace.storage.config.StorageProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Objects in an S3 bucket, or any S3-compatible store such as MinIO.
+ * Downloads are presigned GET URLs served by the store itself.
+ */
+@Component
+@ConditionalOnExpression("'${storage.type:s3}' != 'local'")
+@RequiredArgsConstructor
+public class S3StorageBackend implements StorageBackend {
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final ObjectUploader objectUploader;
+    private final StorageProperties storageProperties;
+
+    @Override
+    public void put(String key, String contentType, InputStream in, long size) throws IOException {
+        objectUploader.upload(key, contentType, in, size);
+    }
+
+    @Override
+    public void write(String key, String contentType, ObjectWriter writer) throws IOException {
+        try (MultipartUploadOutputStream upload = new MultipartUploadOutputStream(s3Client,
+                storageProperties.getBucket(), key, contentType,
+                (int) storageProperties.getBundlePartSize().toBytes())) {
+            writer.writeTo(upload);
+            upload.complete();
+        }
+    }
+
+    @Override
+    public InputStream open(String key) {
+        ResponseInputStream<?> object = s3Client.getObject(request -> request
+                .bucket(storageProperties.getBucket())
+                .key(key));
+        return new AbortOnEarlyClose(object);
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) {
+        try {
+            HeadObjectResponse head = s3Client.headObject(request -> request
+                    .bucket(storageProperties.getBucket())
+                    .key(key));
+            return Optional.of(new StoredObject(head.contentLength(), head.contentType()));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(request -> request.bucket(storageProperties.getBucket()).key(key));
+    }
+
+    @Override
+    public String downloadUrl(String key, Duration validFor) {
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(validFor)
+                .getObjectRequest(request -> request
+                        .bucket(storageProperties.getBucket())
+                        .key(key))
+                .build();
+        return s3Presigner.presignGetObject(presignRequest).url().toString();
+    }
+
+    /**
+     * Closing a response stream normally drains the rest of the object to
+     * reuse the connection; for an abandoned read, dropping it is cheaper.
+     */
+    private static final class AbortOnEarlyClose extends FilterInputStream {
+
+        private final ResponseInputStream<?> object;
+        private boolean finished;
+
+        AbortOnEarlyClose(ResponseInputStream<?> object) {
+            super(object);
+            this.object = object;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            finished |= b == -1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            finished |= read == -1;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                object.abort();
+            }
+            super.close();
+        }
+    }
+}
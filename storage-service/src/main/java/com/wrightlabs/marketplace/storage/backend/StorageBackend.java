@@ -0,0 +1,51 @@
+package com.wrightlabs.marketplace.storage.backend;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Where product files and generated archives are kept. One implementation
+ * is active, chosen by {@code storage.type}: S3 (or MinIO) for real
+ * deployments, the local disk for small installs and offline runs.
+ *
+ * Keys are slash-separated relative paths such as
+ * {@code products/42/<uuid>-worksheet.pdf}.
+ */
+public interface StorageBackend {
+
+    /**
+     * Store exactly {@code size} bytes from {@code in} under the key. Does
+     * not close the stream.
+     */
+    void put(String key, String contentType, InputStream in, long size) throws IOException;
+
+    /**
+     * Store an object of unknown length. Nothing becomes visible under the
+     * key unless {@code writer} returns normally.
+     */
+    void write(String key, String contentType, ObjectWriter writer) throws IOException;
+
+    /**
+     * Read an object. Closing the stream before the end releases it
+     * without reading the rest.
+     */
+    InputStream open(String key) throws IOException;
+
+    Optional<StoredObject> stat(String key);
+
+    void delete(String key);
+
+    /**
+     * URL a browser can fetch the object from until {@code validFor} has
+     * passed.
+     */
+    String downloadUrl(String key, Duration validFor);
+
+    @FunctionalInterface
+    interface ObjectWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
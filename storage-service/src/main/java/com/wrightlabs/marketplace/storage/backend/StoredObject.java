@@ -0,0 +1,10 @@
+package com.wrightlabs.marketplace.storage.backend;
+
+import lombok.Value;
+
+@Value
+public class StoredObject {
+
+    long size;
+    String contentType;
+}
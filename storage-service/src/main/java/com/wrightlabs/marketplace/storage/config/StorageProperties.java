@@ -3,6 +3,7 @@ package com.wrightlabs.marketplace.storage.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @ConfigurationProperties(prefix = "storage")
@@ -15,4 +16,28 @@ public class StorageProperties {
     private String accessKey;
     private String secretKey;
     private int presignedUrlExpiryMinutes = 60;
+    private long presignedUrlCacheSize = 10_000;
+    // Share of the signature lifetime a URL is handed out for; the rest is left for the download
+    private double presignedUrlReuseFraction = 0.5;
+    private int bundleParallelism = 4;
+    // Bytes left before the next file at which it is fetched, so fetched streams do not idle on pooled connections
+    private DataSize bundlePrefetchDistance = DataSize.ofMegabytes(8);
+    // Archives built at once, streamed or stored; each holds up to bundleParallelism + 1 connections
+    private int bundleMaxConcurrent = 8;
+    private int bundleFetchThreads = 16;
+    private DataSize bundleBufferSize = DataSize.ofKilobytes(64);
+    private boolean bundleCacheEnabled = false;
+    private DataSize bundlePartSize = DataSize.ofMegabytes(8);
+    private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+    private DataSize uploadPartSize = DataSize.ofMegabytes(8);
+    private int uploadConcurrency = 4;
+    private int uploadBuffers = 8;
+    private DataSize directUploadMaxSize = DataSize.ofMegabytes(500);
+    private int uploadUrlExpiryMinutes = 30;
+    private String localRoot = "data/storage";
+    private String localSigningKey;
+
+    public boolean isLocal() {
+        return "local".equalsIgnoreCase(type);
+    }
 }
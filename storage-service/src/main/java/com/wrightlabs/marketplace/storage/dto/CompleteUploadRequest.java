@@ -0,0 +1,26 @@
+package com.wrightlabs.marketplace.storage.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CompleteUploadRequest {
+
+    private String fileKey;
+    private String uploadId;
+    private String filename;
+    private String contentType;
+    private long size;
+    private boolean preview;
+
+    /** ETags returned by S3 for each part; multipart uploads only. */
+    private List<Part> parts = new ArrayList<>();
+
+    @Data
+    public static class Part {
+        private int partNumber;
+        private String etag;
+    }
+}
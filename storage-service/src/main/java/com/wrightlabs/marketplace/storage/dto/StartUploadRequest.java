@@ -0,0 +1,11 @@
+package com.wrightlabs.marketplace.storage.dto;
+
+import lombok.Data;
+
+@Data
+public class StartUploadRequest {
+
+    private String filename;
+    private String contentType;
+    private long size;
+}
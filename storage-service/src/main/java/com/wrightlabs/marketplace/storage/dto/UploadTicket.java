@@ -0,0 +1,24 @@
+package com.wrightlabs.marketplace.storage.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Where the browser should send a file. A single presigned PUT URL for
+ * small files; for large ones an open multipart upload and one presigned
+ * URL per part, in part-number order.
+ */
+@Value
+public class UploadTicket {
+
+    String fileKey;
+
+    /** Multipart upload id, or {@code null} for a single PUT. */
+    String uploadId;
+
+    /** Bytes per part; every part but the last is exactly this size. */
+    long partSize;
+
+    List<String> urls;
+}
@@ -0,0 +1,312 @@
+package com.wrightlabs.marketplace.storage.service;
+
+import com.wrightlabs.marketplace.domain.entity.ProductFile;
+import com.wrightlabs.marketplace.storage.backend.StorageBackend;
+import com.wrightlabs.marketplace.storage.config.StorageProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * ZIP archives of a product's files, assembled on the fly from storage.
+ *
+ * The next objects are fetched once the one being written is within
+ * {@code storage.bundle-prefetch-distance} of its end, so each file's request
+ * latency overlaps the previous file's transfer without opened streams
+ * sitting idle on pooled connections for long. Bytes go from the object
+ * stream through one fixed-size buffer into the archive stream; neither the
+ * archive nor any whole file is held in memory or on disk.
+ *
+ * At most {@code storage.bundle-max-concurrent} archives are built at once,
+ * streamed or stored, which also bounds the storage connections they hold.
+ *
+ * With caching enabled, a finished archive is also stored under a key
+ * derived from the product's file set, so later requests can be redirected
+ * to it. Changing any file changes the key; superseded archives are left
+ * for a bucket lifecycle rule on {@code bundles/} to expire.
+ */
+@Service
+@Slf4j
+public class BundleService {
+
+    private static final String BUNDLE_PREFIX = "bundles/";
+    private static final String ZIP_CONTENT_TYPE = "application/zip";
+
+    private final StorageBackend storageBackend;
+    private final StorageProperties storageProperties;
+    private final ThreadPoolExecutor fetchExecutor;
+    private final Semaphore slots;
+    private final Set<String> building = ConcurrentHashMap.newKeySet();
+
+    public BundleService(StorageBackend storageBackend, StorageProperties storageProperties) {
+        this.storageBackend = storageBackend;
+        this.storageProperties = storageProperties;
+        this.slots = new Semaphore(storageProperties.getBundleMaxConcurrent());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = storageProperties.getBundleFetchThreads();
+        this.fetchExecutor = new ThreadPoolExecutor(threads, threads,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bundle-fetch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.fetchExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Storage key of the archive for exactly this set of files.
+     */
+    public String bundleKey(Long productId, List<ProductFile> files) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        files.stream()
+                .sorted(Comparator.comparing(ProductFile::getId))
+                .forEach(file -> digest.update((file.getId() + ":" + file.getFileKey() + ":" + file.getFileSize()
+                        + ":" + file.getFilename() + "\n").getBytes(StandardCharsets.UTF_8)));
+        return BUNDLE_PREFIX + productId + "/" + HexFormat.of().formatHex(digest.digest()) + ".zip";
+    }
+
+    /**
+     * Whether a stored archive exists for the key. Always false when
+     * caching is disabled.
+     */
+    public boolean isCached(String bundleKey) {
+        if (!storageProperties.isBundleCacheEnabled()) {
+            return false;
+        }
+        return storageBackend.stat(bundleKey).isPresent();
+    }
+
+    /**
+     * Reserve one of the archive builds that may run at once, or empty when
+     * all are taken. Closing the slot frees it.
+     */
+    public Optional<Slot> tryReserve() {
+        return slots.tryAcquire() ? Optional.of(new Slot()) : Optional.empty();
+    }
+
+    /**
+     * Stream the files as one ZIP archive, in list order. Callers hold a
+     * {@link Slot} while writing. Does not close {@code out}.
+     */
+    public void writeBundle(List<ProductFile> files, OutputStream out) throws IOException {
+        byte[] buffer = new byte[(int) storageProperties.getBundleBufferSize().toBytes()];
+        FetchWindow window = new FetchWindow(files);
+        Set<String> entryNames = new HashSet<>();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // Lesson files are mostly PDFs and Office documents that are already compressed
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            for (ProductFile file : files) {
+                long remaining = sizeOf(file);
+                InputStream object = window.next(file);
+                try (object) {
+                    zip.putNextEntry(new ZipEntry(entryName(file.getFilename(), entryNames)));
+                    window.prefetch(remaining);
+                    int read;
+                    while ((read = object.read(buffer)) != -1) {
+                        zip.write(buffer, 0, read);
+                        remaining -= read;
+                        window.prefetch(remaining);
+                    }
+                    zip.closeEntry();
+                }
+            }
+            zip.finish();
+            zip.flush();
+        } finally {
+            window.discard();
+        }
+    }
+
+    /**
+     * Build and store the archive in the background unless it is stored or
+     * already being built. Does nothing when caching is disabled, and skips
+     * the build when no slot is free; a later download starts it again.
+     */
+    @Async
+    public void cacheBundle(String bundleKey, List<ProductFile> files) {
+        if (!storageProperties.isBundleCacheEnabled() || !building.add(bundleKey)) {
+            return;
+        }
+        Optional<Slot> slot = tryReserve();
+        if (slot.isEmpty()) {
+            building.remove(bundleKey);
+            log.debug("No bundle slot free to store {}", bundleKey);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try (Slot reserved = slot.get()) {
+            storageBackend.write(bundleKey, ZIP_CONTENT_TYPE, out -> writeBundle(files, out));
+            log.info("Stored bundle {} of {} files in {} ms", bundleKey, files.size(),
+                    System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not store bundle {}: {}", bundleKey, e.getMessage());
+        } finally {
+            building.remove(bundleKey);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    private static long sizeOf(ProductFile file) {
+        return file.getFileSize() != null ? file.getFileSize() : 0;
+    }
+
+    /**
+     * One archive build's claim on {@code storage.bundle-max-concurrent}.
+     * Closing it more than once frees the slot once.
+     */
+    public final class Slot implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * The objects fetched ahead of the one being written, in file order.
+     * The next file is fetched only once at most
+     * {@code storage.bundle-prefetch-distance} bytes remain to be written
+     * before it, up to {@code storage.bundle-parallelism} files ahead.
+     */
+    private final class FetchWindow {
+
+        private final Iterator<ProductFile> toFetch;
+        private final Deque<Future<InputStream>> fetched = new ArrayDeque<>();
+        private final long distance = storageProperties.getBundlePrefetchDistance().toBytes();
+        // Size of the files fetched but not yet started
+        private long fetchedBytes;
+
+        FetchWindow(List<ProductFile> files) {
+            this.toFetch = files.iterator();
+        }
+
+        /**
+         * The object for the next file, fetching it now if it was not fetched ahead.
+         */
+        InputStream next(ProductFile file) throws IOException {
+            if (fetched.isEmpty()) {
+                return await(fetch(toFetch.next()));
+            }
+            fetchedBytes -= sizeOf(file);
+            return await(fetched.removeFirst());
+        }
+
+        /**
+         * Fetch ahead as far as the distance allows, given the bytes left of
+         * the file being written.
+         */
+        void prefetch(long remaining) {
+            while (toFetch.hasNext()
+                    && fetched.size() < storageProperties.getBundleParallelism()
+                    && remaining + fetchedBytes <= distance) {
+                ProductFile file = toFetch.next();
+                fetched.addLast(fetch(file));
+                fetchedBytes += sizeOf(file);
+            }
+        }
+
+        /**
+         * Release connections held by objects fetched but never written.
+         */
+        void discard() {
+            for (Future<InputStream> pending : fetched) {
+                BundleService.this.discard(pending);
+            }
+            fetched.clear();
+        }
+    }
+
+    private Future<InputStream> fetch(ProductFile file) {
+        return fetchExecutor.submit(() -> storageBackend.open(file.getFileKey()));
+    }
+
+    private InputStream await(Future<InputStream> fetch) throws IOException {
+        try {
+            return fetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching bundle file");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Could not fetch bundle file", e.getCause());
+        }
+    }
+
+    private void discard(Future<InputStream> fetch) {
+        try {
+            // Released without reading the rest of the object
+            fetch.get().close();
+        } catch (Exception e) {
+            log.debug("Ignoring failure of abandoned bundle fetch: {}", e.getMessage());
+        }
+    }
+
+    private String entryName(String filename, Set<String> used) {
+        String name = filename.replaceAll("[\\\\/]", "_");
+        if (used.add(name)) {
+            return name;
+        }
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int copy = 2; ; copy++) {
+            String candidate = base + " (" + copy + ")" + extension;
+            if (used.add(candidate)) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.wrightlabs.marketplace.storage.service;
+
+import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductFile;
+import com.wrightlabs.marketplace.domain.repository.ProductFileRepository;
+import com.wrightlabs.marketplace.storage.config.StorageProperties;
+import com.wrightlabs.marketplace.storage.dto.CompleteUploadRequest;
+import com.wrightlabs.marketplace.storage.dto.StartUploadRequest;
+import com.wrightlabs.marketplace.storage.dto.UploadTicket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Browser uploads that go straight to the bucket. The app only hands out
+ * presigned URLs and, once the browser reports the upload done, checks the
+ * stored object with a HEAD before recording it; file bytes never pass
+ * through the app servers.
+ *
+ * The bucket needs a CORS rule allowing PUT from the site's origin and
+ * exposing the {@code ETag} header, and a lifecycle rule aborting
+ * incomplete multipart uploads that browsers abandon. Only available with
+ * S3 storage; local storage has no URLs a browser could upload to.
+ */
+@Service
+@ConditionalOnExpression("'${storage.type:s3}' != 'local'")
+@RequiredArgsConstructor
+@Slf4j
+public class DirectUploadService {
+
+    // S3 allows at most this many parts per upload
+    private static final int MAX_PARTS = 10_000;
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final StorageProperties storageProperties;
+    private final ProductFileRepository productFileRepository;
+
+    /**
+     * Issue upload URLs for one file of the product. Files from
+     * {@code storage.multipart-threshold} up get a multipart upload.
+     */
+    public UploadTicket startUpload(Product product, StartUploadRequest request) {
+        if (request.getFilename() == null || request.getFilename().isBlank()) {
+            throw new IllegalArgumentException("Filename is required");
+        }
+        if (request.getSize() <= 0 || request.getSize() > storageProperties.getDirectUploadMaxSize().toBytes()) {
+            throw new IllegalArgumentException("File must be between 1 byte and "
+                    + storageProperties.getDirectUploadMaxSize().toMegabytes() + "MB");
+        }
+
+        String bucket = storageProperties.getBucket();
+        String fileKey = FileStorageService.generateFileKey(product.getId(), request.getFilename());
+        Duration expiry = Duration.ofMinutes(storageProperties.getUploadUrlExpiryMinutes());
+
+        if (request.getSize() < storageProperties.getMultipartThreshold().toBytes()) {
+            // Content-Length is signed, so S3 rejects a body of any other size
+            PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                    .signatureDuration(expiry)
+                    .putObjectRequest(put -> put
+                            .bucket(bucket)
+                            .key(fileKey)
+                            .contentType(request.getContentType())
+                            .contentLength(request.getSize()))
+                    .build();
+            String url = s3Presigner.presignPutObject(presignRequest).url().toString();
+            return new UploadTicket(fileKey, null, request.getSize(), List.of(url));
+        }
+
+        long partSize = storageProperties.getUploadPartSize().toBytes();
+        long partCount = (request.getSize() + partSize - 1) / partSize;
+        if (partCount > MAX_PARTS) {
+            throw new IllegalArgumentException("File is too large for the configured part size");
+        }
+
+        String uploadId = s3Client.createMultipartUpload(create -> create
+                .bucket(bucket)
+                .key(fileKey)
+                .contentType(request.getContentType()))
+                .uploadId();
+
+        List<String> urls = new ArrayList<>((int) partCount);
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            int number = partNumber;
+            UploadPartPresignRequest presignRequest = UploadPartPresignRequest.builder()
+                    .signatureDuration(expiry)
+                    .uploadPartRequest(part -> part
+                            .bucket(bucket)
+                            .key(fileKey)
+                            .uploadId(uploadId)
+                            .partNumber(number))
+                    .build();
+            urls.add(s3Presigner.presignUploadPart(presignRequest).url().toString());
+        }
+
+        log.info("Started direct multipart upload {} of {} parts for product {}", fileKey, partCount,
+                product.getId());
+        return new UploadTicket(fileKey, uploadId, partSize, urls);
+    }
+
+    /**
+     * Finish a direct upload: complete the multipart upload if there is one,
+     * verify the stored object against what the browser declared, and
+     * record it. An object that does not match is deleted. A key that is
+     * already recorded is rejected before anything is touched, so a replayed
+     * completion can neither add a second row for the object nor delete it.
+     */
+    public ProductFile completeUpload(Product product, CompleteUploadRequest request) {
+        String bucket = storageProperties.getBucket();
+        String fileKey = requireOwnKey(product, request.getFileKey());
+        if (productFileRepository.existsByFileKey(fileKey)) {
+            throw new IllegalArgumentException("Upload already completed: " + fileKey);
+        }
+
+        if (request.getUploadId() != null) {
+            List<CompletedPart> parts = request.getParts().stream()
+                    .sorted(Comparator.comparingInt(CompleteUploadRequest.Part::getPartNumber))
+                    .map(part -> CompletedPart.builder()
+                            .partNumber(part.getPartNumber())
+                            .eTag(part.getEtag())
+                            .build())
+                    .toList();
+            s3Client.completeMultipartUpload(complete -> complete
+                    .bucket(bucket)
+                    .key(fileKey)
+                    .uploadId(request.getUploadId())
+                    .multipartUpload(upload -> upload.parts(parts)));
+        }
+
+        HeadObjectResponse head;
+        try {
+            head = s3Client.headObject(headRequest -> headRequest.bucket(bucket).key(fileKey));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new IllegalArgumentException("Upload not found: " + fileKey);
+            }
+            throw e;
+        }
+
+        boolean sizeMatches = head.contentLength() == request.getSize()
+                && head.contentLength() <= storageProperties.getDirectUploadMaxSize().toBytes();
+        boolean typeMatches = request.getContentType() == null
+                || request.getContentType().equals(head.contentType());
+        if (!sizeMatches || !typeMatches) {
+            s3Client.deleteObject(delete -> delete.bucket(bucket).key(fileKey));
+            throw new IllegalArgumentException("Uploaded file does not match what was declared");
+        }
+
+        ProductFile productFile = ProductFile.builder()
+                .product(product)
+                .filename(request.getFilename())
+                .fileKey(fileKey)
+                .fileSize(head.contentLength())
+                .fileType(head.contentType())
+                .isPreview(request.isPreview())
+                .build();
+
+        log.info("Completed direct upload {} ({} bytes) for product {}", fileKey, head.contentLength(),
+                product.getId());
+        return productFileRepository.save(productFile);
+    }
+
+    /**
+     * Abandon a multipart upload the browser could not finish.
+     */
+    public void abortUpload(Product product, String fileKey, String uploadId) {
+        String key = requireOwnKey(product, fileKey);
+        s3Client.abortMultipartUpload(abort -> abort
+                .bucket(storageProperties.getBucket())
+                .key(key)
+                .uploadId(uploadId));
+        log.info("Aborted direct upload {} for product {}", key, product.getId());
+    }
+
+    private String requireOwnKey(Product product, String fileKey) {
+        // Keys are issued under the product's prefix; anything else was not issued for it
+        if (fileKey == null || !fileKey.startsWith("products/" + product.getId() + "/") || fileKey.contains("..")) {
+            throw new IllegalArgumentException("Invalid file key");
+        }
+        return fileKey;
+    }
+}
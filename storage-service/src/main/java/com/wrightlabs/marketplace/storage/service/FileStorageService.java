@@ -1,52 +1,68 @@
 package com.wrightlabs.marketplace.storage.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.wrightlabs.marketplace.domain.entity.Product;
 import com.wrightlabs.marketplace.domain.entity.ProductFile;
 import com.wrightlabs.marketplace.domain.repository.ProductFileRepository;
+import com.wrightlabs.marketplace.storage.backend.StorageBackend;
 import com.wrightlabs.marketplace.storage.config.StorageProperties;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class FileStorageService {
 
-    private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
+    private final StorageBackend storageBackend;
     private final StorageProperties storageProperties;
     private final ProductFileRepository productFileRepository;
+    private final Cache<String, String> downloadUrls;
+
+    public FileStorageService(StorageBackend storageBackend, StorageProperties storageProperties,
+            ProductFileRepository productFileRepository, MeterRegistry meterRegistry) {
+        this.storageBackend = storageBackend;
+        this.storageProperties = storageProperties;
+        this.productFileRepository = productFileRepository;
+
+        double reuseFraction = storageProperties.getPresignedUrlReuseFraction();
+        if (reuseFraction < 0 || reuseFraction >= 1) {
+            throw new IllegalArgumentException("storage.presigned-url-reuse-fraction must be in [0, 1)");
+        }
+        // Entries expire well before their signature does, so a URL handed out
+        // from the cache is always valid for at least (1 - fraction) of its lifetime
+        Duration reuseFor = Duration.ofMinutes(storageProperties.getPresignedUrlExpiryMinutes())
+                .multipliedBy(Math.round(reuseFraction * 1000)).dividedBy(1000);
+        this.downloadUrls = Caffeine.newBuilder()
+                .maximumSize(storageProperties.getPresignedUrlCacheSize())
+                .expireAfterWrite(reuseFor)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, downloadUrls, "storage.presigned-urls");
+    }
 
     /**
-     * Upload a file to S3 and create ProductFile record
+     * Upload a file to storage and create ProductFile record. Not transactional:
+     * a large upload must not hold a database connection, and the record is
+     * saved in its own transaction once the object is stored.
      */
-    @Transactional
     public ProductFile uploadFile(MultipartFile file, Product product, boolean isPreview) throws IOException {
         String fileKey = generateFileKey(product.getId(), file.getOriginalFilename());
 
-        // Upload to S3
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(storageProperties.getBucket())
-                .key(fileKey)
-                .contentType(file.getContentType())
-                .build();
-
-        s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-        log.info("Uploaded file to S3: {}", fileKey);
+        // On S3, large files go up in parallel parts
+        try (InputStream in = file.getInputStream()) {
+            storageBackend.put(fileKey, file.getContentType(), in, file.getSize());
+        }
+        log.info("Uploaded file to storage: {}", fileKey);
 
         // Create database record
         ProductFile productFile = ProductFile.builder()
@@ -62,48 +78,42 @@ public class FileStorageService {
     }
 
     /**
-     * Generate a presigned URL for downloading a file
+     * Presigned URL for downloading a file. Popular files get the same URL
+     * for a while instead of being re-signed on every click.
      */
     public String generateDownloadUrl(String fileKey) {
-        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(storageProperties.getPresignedUrlExpiryMinutes()))
-                .getObjectRequest(req -> req
-                        .bucket(storageProperties.getBucket())
-                        .key(fileKey))
-                .build();
+        return downloadUrls.get(fileKey, this::presignDownload);
+    }
 
-        PresignedGetObjectRequest presignedRequest = s3Presigner.presignGetObject(presignRequest);
-        String url = presignedRequest.url().toString();
+    private String presignDownload(String fileKey) {
+        String url = storageBackend.downloadUrl(fileKey,
+                Duration.ofMinutes(storageProperties.getPresignedUrlExpiryMinutes()));
 
         log.debug("Generated presigned URL for file: {}", fileKey);
         return url;
     }
 
     /**
-     * Delete a file from S3 and database
+     * Delete a file from storage and database
      */
     @Transactional
     public void deleteFile(Long fileId) {
         ProductFile productFile = productFileRepository.findById(fileId)
                 .orElseThrow(() -> new IllegalArgumentException("File not found: " + fileId));
 
-        // Delete from S3
-        DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-                .bucket(storageProperties.getBucket())
-                .key(productFile.getFileKey())
-                .build();
-
-        s3Client.deleteObject(deleteRequest);
-        log.info("Deleted file from S3: {}", productFile.getFileKey());
+        // Delete from storage
+        storageBackend.delete(productFile.getFileKey());
+        downloadUrls.invalidate(productFile.getFileKey());
+        log.info("Deleted file from storage: {}", productFile.getFileKey());
 
         // Delete database record
         productFileRepository.delete(productFile);
     }
 
     /**
-     * Generate a unique file key for S3
+     * Generate a unique file key for storage
      */
-    private String generateFileKey(Long productId, String originalFilename) {
+    static String generateFileKey(Long productId, String originalFilename) {
         String uuid = UUID.randomUUID().toString();
         String sanitizedFilename = originalFilename.replaceAll("[^a-zA-Z0-9.-]", "_");
         return String.format("products/%d/%s-%s", productId, uuid, sanitizedFilename);
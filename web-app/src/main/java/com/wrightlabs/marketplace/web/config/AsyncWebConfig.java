@@ -0,0 +1,46 @@
+package com.wrightlabs.marketplace.web.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs asynchronous responses, such as streamed bundle downloads, on their
+ * own bounded pool instead of the {@code @Async} executor, so long downloads
+ * and background work cannot queue behind each other.
+ *
+ * The pool is private rather than a bean so it does not replace the
+ * executor used for {@code @Async} methods. When it is saturated, responses
+ * are written on the request thread.
+ */
+@Configuration
+public class AsyncWebConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public AsyncWebConfig(AsyncWebProperties properties) {
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(properties.getPoolSize());
+        this.executor.setMaxPoolSize(properties.getPoolSize());
+        this.executor.setQueueCapacity(properties.getQueueCapacity());
+        this.executor.setAllowCoreThreadTimeOut(true);
+        this.executor.setThreadNamePrefix("async-web-");
+        this.executor.setDaemon(true);
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
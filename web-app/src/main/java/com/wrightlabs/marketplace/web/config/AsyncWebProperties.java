@@ -0,0 +1,13 @@
+package com.wrightlabs.marketplace.web.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "async-web")
+@Data
+public class AsyncWebProperties {
+    private int poolSize = 16;
+    private int queueCapacity = 32;
+}
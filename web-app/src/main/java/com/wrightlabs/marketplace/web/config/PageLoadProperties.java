@@ -0,0 +1,16 @@
+package com.wrightlabs.marketplace.web.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "page-load")
+@Data
+public class PageLoadProperties {
+    private int poolSize = 16;
+    private int queueCapacity = 200;
+    private Duration deadline = Duration.ofSeconds(2);
+}
@@ -4,6 +4,8 @@ import com.wrightlabs.marketplace.admin.service.AdminService;
 import com.wrightlabs.marketplace.domain.entity.Product;
 import com.wrightlabs.marketplace.domain.entity.Review;
 import com.wrightlabs.marketplace.domain.entity.User;
+import com.wrightlabs.marketplace.payment.service.OrderService;
+import com.wrightlabs.marketplace.web.support.PageLoader;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -12,24 +14,43 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+
 @Controller
 @RequestMapping("/admin")
 @RequiredArgsConstructor
 public class AdminController {
 
     private final AdminService adminService;
+    private final OrderService orderService;
+    private final PageLoader pageLoader;
 
     @GetMapping
     public String dashboard(Model model) {
-        model.addAttribute("totalRevenue", adminService.getTotalRevenue());
-        model.addAttribute("totalOrders", adminService.getTotalOrders());
-        model.addAttribute("totalProducts", adminService.getTotalProducts());
-        model.addAttribute("totalUsers", adminService.getTotalUsers());
-        model.addAttribute("recentOrders", adminService.getRecentOrders(10));
+        // Independent reads, loaded in parallel
+        pageLoader.begin("admin dashboard")
+                .require("totalRevenue", adminService::getTotalRevenue)
+                .require("totalOrders", adminService::getTotalOrders)
+                .require("totalProducts", adminService::getTotalProducts)
+                .require("totalUsers", adminService::getTotalUsers)
+                .optional("recentOrders", () -> adminService.getRecentOrders(10), List.of())
+                .into(model);
 
         return "admin/dashboard";
     }
 
+    @PostMapping("/orders/{orderNumber}/refund")
+    public String refundOrder(@PathVariable String orderNumber, RedirectAttributes redirectAttributes) {
+        try {
+            orderService.markOrderAsRefunded(orderNumber);
+            redirectAttributes.addFlashAttribute("success", "Order " + orderNumber + " marked as refunded");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+
+        return "redirect:/admin";
+    }
+
     @GetMapping("/users")
     public String users(@RequestParam(defaultValue = "0") int page, Model model) {
         Page<User> users = adminService.getAllUsers(PageRequest.of(page, 20));
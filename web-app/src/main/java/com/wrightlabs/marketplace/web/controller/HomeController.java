@@ -1,35 +1,35 @@
 package com.wrightlabs.marketplace.web.controller;
 
+import com.wrightlabs.marketplace.catalog.dto.CursorPage;
+import com.wrightlabs.marketplace.catalog.dto.FeaturedRails;
 import com.wrightlabs.marketplace.catalog.dto.ProductSearchCriteria;
+import com.wrightlabs.marketplace.catalog.service.FeaturedContentCache;
 import com.wrightlabs.marketplace.catalog.service.ProductService;
-import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
-
 @Controller
 @RequiredArgsConstructor
 public class HomeController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductService productService;
+    private final FeaturedContentCache featuredContentCache;
 
     @GetMapping("/")
     public String home(Model model) {
-        // Fetch featured products for homepage
-        List<Product> bestsellers = productService.getBestsellers(6);
-        List<Product> newest = productService.getNewest(6);
-        List<Product> topRated = productService.getTopRated(6);
+        // Featured rails are served from the in-memory snapshot
+        FeaturedRails rails = featuredContentCache.getRails();
 
-        model.addAttribute("bestsellers", bestsellers);
-        model.addAttribute("newest", newest);
-        model.addAttribute("topRated", topRated);
+        model.addAttribute("bestsellers", rails.getBestsellers());
+        model.addAttribute("newest", rails.getNewest());
+        model.addAttribute("topRated", rails.getTopRated());
 
         return "index";
     }
@@ -37,16 +37,30 @@ public class HomeController {
     @GetMapping("/search")
     public String search(
             @RequestParam(required = false) String keyword,
-            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
             Model model) {
+        size = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
 
-        ProductSearchCriteria criteria = new ProductSearchCriteria();
-        criteria.setKeyword(keyword);
+        CursorPage<ProductCard> products;
+        if (fuzzy) {
+            // Similarity-ranked, typo-tolerant results fit on one page
+            products = new CursorPage<>(productService.findSimilar(keyword, size), null);
+        } else {
+            ProductSearchCriteria criteria = new ProductSearchCriteria();
+            criteria.setKeyword(keyword);
+            products = productService.searchProductsAfter(criteria, cursor, size);
+        }
 
-        Page<Product> products = productService.searchProducts(criteria, pageable);
+        // Nothing matched exactly: offer a corrected spelling
+        if (products.getContent().isEmpty() && StringUtils.hasText(keyword) && !fuzzy) {
+            productService.didYouMean(keyword).ifPresent(suggestion -> model.addAttribute("didYouMean", suggestion));
+        }
 
         model.addAttribute("products", products);
         model.addAttribute("keyword", keyword);
+        model.addAttribute("fuzzy", fuzzy);
 
         return "search";
     }
@@ -1,16 +1,25 @@
 package com.wrightlabs.marketplace.web.controller;
 
-import com.wrightlabs.marketplace.domain.entity.Product;
-import com.wrightlabs.marketplace.domain.entity.ProductFile;
 import com.wrightlabs.marketplace.domain.entity.User;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
+import com.wrightlabs.marketplace.payment.dto.ProductBundle;
 import com.wrightlabs.marketplace.payment.service.LibraryService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Controller
@@ -18,6 +27,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LibraryController {
 
+    private static final String BUSY_RETRY_AFTER_SECONDS = "30";
+
     private final LibraryService libraryService;
     private final com.wrightlabs.marketplace.auth.service.UserService userService;
 
@@ -25,20 +36,49 @@ public class LibraryController {
     public String viewLibrary(@AuthenticationPrincipal UserDetails userDetails, Model model) {
         User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
 
-        List<Product> library = libraryService.getUserLibrary(user.getId());
+        List<ProductCard> library = libraryService.getUserLibrary(user.getId());
 
         model.addAttribute("library", library);
+        model.addAttribute("files", libraryService.getLibraryFiles(library));
         return "library/index";
     }
 
     @GetMapping("/download/{productId}/{fileId}")
     public String downloadFile(@PathVariable Long productId,
             @PathVariable Long fileId,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request) {
         User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
 
-        String downloadUrl = libraryService.generateDownloadUrl(user.getId(), productId, fileId);
+        String downloadUrl = libraryService.generateDownloadUrl(user.getId(), productId, fileId,
+                request.getRemoteAddr());
 
         return "redirect:" + downloadUrl;
     }
+
+    @GetMapping("/download/{productId}/all")
+    public ResponseEntity<StreamingResponseBody> downloadAll(@PathVariable Long productId,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request) {
+        User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
+
+        ProductBundle bundle = libraryService.prepareBundle(user.getId(), productId, request.getRemoteAddr());
+        if (bundle.isCached()) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(bundle.getCachedUrl())).build();
+        }
+        if (bundle.isBusy()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, BUSY_RETRY_AFTER_SECONDS)
+                    .build();
+        }
+
+        // Written to the response as it is assembled; length is unknown up front
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(bundle.getArchiveName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .body(out -> libraryService.writeBundle(bundle, out));
+    }
 }
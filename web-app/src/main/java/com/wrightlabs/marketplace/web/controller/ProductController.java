@@ -1,49 +1,77 @@
 package com.wrightlabs.marketplace.web.controller;
 
+import com.wrightlabs.marketplace.catalog.dto.CursorPage;
+import com.wrightlabs.marketplace.catalog.dto.FacetedSearchResult;
+import com.wrightlabs.marketplace.catalog.dto.ProductDetailView;
 import com.wrightlabs.marketplace.catalog.dto.ProductSearchCriteria;
+import com.wrightlabs.marketplace.catalog.service.ProductDetailAssembler;
 import com.wrightlabs.marketplace.catalog.service.ProductService;
-import com.wrightlabs.marketplace.catalog.service.ReviewService;
-import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductRatingStats;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @Controller
 @RequestMapping("/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductService productService;
-    private final ReviewService reviewService;
+    private final ProductDetailAssembler productDetailAssembler;
 
     @GetMapping
     public String listProducts(@ModelAttribute ProductSearchCriteria criteria,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String cursor,
             Model model) {
-        Page<Product> products = productService.searchProducts(criteria, PageRequest.of(page, size));
+        page = Math.max(page, 0);
+        size = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Cursor mode: seek pagination without page numbers or a total count
+        if (cursor != null) {
+            CursorPage<ProductCard> products = productService.searchProductsAfter(criteria, cursor, size);
+
+            model.addAttribute("products", products);
+            model.addAttribute("facets", Map.of());
+            model.addAttribute("criteria", criteria);
+            model.addAttribute("keyset", true);
+            return "products/list";
+        }
 
-        model.addAttribute("products", products);
+        FacetedSearchResult result = productService.searchWithFacets(criteria, PageRequest.of(page, size));
+
+        if (result.getProducts().isEmpty() && StringUtils.hasText(criteria.getKeyword())) {
+            productService.didYouMean(criteria.getKeyword())
+                    .ifPresent(suggestion -> model.addAttribute("didYouMean", suggestion));
+        }
+
+        model.addAttribute("products", result.getProducts());
+        model.addAttribute("facets", result.getFacets());
         model.addAttribute("criteria", criteria);
+        model.addAttribute("keyset", false);
         return "products/list";
     }
 
     @GetMapping("/{id}")
     public String productDetail(@PathVariable Long id, Model model) {
-        Product product = productService.getProductById(id);
-        productService.incrementViewCount(id);
-
-        Double averageRating = reviewService.getAverageRating(id);
-        long reviewCount = reviewService.getReviewCount(id);
-        Page reviews = reviewService.getProductReviews(id, PageRequest.of(0, 10));
+        ProductDetailView view = productDetailAssembler.load(id);
+        ProductRatingStats ratingStats = view.getRatingStats();
 
-        model.addAttribute("product", product);
-        model.addAttribute("averageRating", averageRating != null ? averageRating : 0.0);
-        model.addAttribute("reviewCount", reviewCount);
-        model.addAttribute("reviews", reviews);
+        model.addAttribute("product", view.getProduct());
+        model.addAttribute("storeName", view.getStoreName());
+        model.addAttribute("averageRating", ratingStats.getAverageRating().doubleValue());
+        model.addAttribute("reviewCount", ratingStats.getRatingCount());
+        model.addAttribute("ratingStats", ratingStats);
+        model.addAttribute("reviews", view.getReviews());
 
         return "products/detail";
     }
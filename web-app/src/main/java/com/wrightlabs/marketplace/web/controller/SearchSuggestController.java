@@ -0,0 +1,25 @@
+package com.wrightlabs.marketplace.web.controller;
+
+import com.wrightlabs.marketplace.catalog.dto.Suggestion;
+import com.wrightlabs.marketplace.catalog.search.AutocompleteIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchSuggestController {
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    @GetMapping("/suggest")
+    public List<Suggestion> suggest(@RequestParam("q") String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        return autocompleteIndex.suggest(prefix, limit);
+    }
+}
@@ -5,7 +5,9 @@ import com.wrightlabs.marketplace.catalog.service.ProductService;
 import com.wrightlabs.marketplace.admin.service.SellerDashboardService;
 import com.wrightlabs.marketplace.domain.entity.Product;
 import com.wrightlabs.marketplace.domain.entity.User;
+import com.wrightlabs.marketplace.storage.service.DirectUploadService;
 import com.wrightlabs.marketplace.storage.service.FileStorageService;
+import com.wrightlabs.marketplace.web.support.PageLoader;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,6 +21,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 @Controller
 @RequestMapping("/seller")
 @RequiredArgsConstructor
@@ -26,18 +32,23 @@ public class SellerController {
 
     private final ProductService productService;
     private final SellerDashboardService dashboardService;
+    private final PageLoader pageLoader;
     private final FileStorageService fileStorageService;
+    private final Optional<DirectUploadService> directUploadService;
     private final com.wrightlabs.marketplace.auth.service.UserService userService;
 
     @GetMapping("/dashboard")
     public String dashboard(@AuthenticationPrincipal UserDetails userDetails, Model model) {
         User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
 
-        SellerDashboardService.SellerDashboardStats stats = dashboardService.getSellerStats(user.getId());
+        Long sellerId = user.getId();
 
-        model.addAttribute("stats", stats);
-        model.addAttribute("topProducts", dashboardService.getTopSellingProducts(user.getId(), 5));
-        model.addAttribute("salesData", dashboardService.getSalesByPeriod(user.getId(), 30));
+        // Independent reads, loaded in parallel
+        pageLoader.begin("seller dashboard")
+                .require("stats", () -> dashboardService.getSellerStats(sellerId))
+                .optional("topProducts", () -> dashboardService.getTopSellingProducts(sellerId, 5), List.of())
+                .optional("salesData", () -> dashboardService.getSalesByPeriod(sellerId, 30), Map.of())
+                .into(model);
 
         return "seller/dashboard";
     }
@@ -99,6 +110,7 @@ public class SellerController {
         model.addAttribute("productRequest", request);
         model.addAttribute("product", product);
         model.addAttribute("isEdit", true);
+        model.addAttribute("directUploads", directUploadService.isPresent());
 
         return "seller/product-form";
     }
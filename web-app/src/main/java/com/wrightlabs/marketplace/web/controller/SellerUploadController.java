@@ -0,0 +1,78 @@
+package com.wrightlabs.marketplace.web.controller;
+
+import com.wrightlabs.marketplace.auth.service.UserService;
+import com.wrightlabs.marketplace.catalog.service.ProductService;
+import com.wrightlabs.marketplace.domain.entity.Product;
+import com.wrightlabs.marketplace.domain.entity.ProductFile;
+import com.wrightlabs.marketplace.domain.entity.User;
+import com.wrightlabs.marketplace.storage.dto.CompleteUploadRequest;
+import com.wrightlabs.marketplace.storage.dto.StartUploadRequest;
+import com.wrightlabs.marketplace.storage.dto.UploadTicket;
+import com.wrightlabs.marketplace.storage.service.DirectUploadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JSON endpoints behind direct-to-bucket uploads from the product form.
+ */
+@RestController
+@RequestMapping("/seller/products/{productId}/uploads")
+@RequiredArgsConstructor
+public class SellerUploadController {
+
+    private final ProductService productService;
+    // Absent with local storage
+    private final Optional<DirectUploadService> directUploadService;
+    private final UserService userService;
+
+    @PostMapping
+    public UploadTicket start(@PathVariable Long productId,
+            @RequestBody StartUploadRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return directUploads().startUpload(ownedProduct(productId, userDetails), request);
+    }
+
+    @PostMapping("/complete")
+    public Map<String, Object> complete(@PathVariable Long productId,
+            @RequestBody CompleteUploadRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        ProductFile file = directUploads().completeUpload(ownedProduct(productId, userDetails), request);
+        return Map.of("id", file.getId(), "filename", file.getFilename());
+    }
+
+    @PostMapping("/abort")
+    public ResponseEntity<Void> abort(@PathVariable Long productId,
+            @RequestParam String fileKey,
+            @RequestParam String uploadId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        directUploads().abortUpload(ownedProduct(productId, userDetails), fileKey, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    private DirectUploadService directUploads() {
+        return directUploadService.orElseThrow(
+                () -> new IllegalArgumentException("Direct uploads are not available with local storage"));
+    }
+
+    private Product ownedProduct(Long productId, UserDetails userDetails) {
+        User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
+        Product product = productService.getProductById(productId);
+
+        // Verify ownership
+        if (!product.getSeller().getId().equals(user.getId())) {
+            throw new IllegalArgumentException("Access denied");
+        }
+        return product;
+    }
+}
@@ -1,7 +1,7 @@
 package com.wrightlabs.marketplace.web.controller;
 
-import com.wrightlabs.marketplace.domain.entity.Product;
 import com.wrightlabs.marketplace.domain.entity.User;
+import com.wrightlabs.marketplace.domain.projection.ProductCard;
 import com.wrightlabs.marketplace.payment.service.WishlistService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -25,7 +25,7 @@ public class WishlistController {
     public String viewWishlist(@AuthenticationPrincipal UserDetails userDetails, Model model) {
         User user = userService.findByEmail(userDetails.getUsername()).orElseThrow();
 
-        List<Product> wishlist = wishlistService.getUserWishlist(user.getId());
+        List<ProductCard> wishlist = wishlistService.getUserWishlist(user.getId());
 
         model.addAttribute("wishlist", wishlist);
         return "wishlist/index";
@@ -0,0 +1,162 @@
+package com.wrightlabs.marketplace.web.support;
+
+import com.wrightlabs.marketplace.web.config.PageLoadProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.ui.Model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent reads behind a composite page (dashboards) in
+ * parallel, each in its own read-only transaction, so the page costs the
+ * slowest read rather than the sum of them.
+ *
+ * The pool is private rather than a bean so it does not replace the
+ * executor used for {@code @Async} methods. When it is saturated, reads run
+ * on the request thread, which degrades to sequential loading.
+ */
+@Component
+@Slf4j
+public class PageLoader {
+
+    /** Model attribute set when optional parts of a page were left out. */
+    public static final String PARTIAL_ATTRIBUTE = "partialContent";
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PageLoadProperties properties;
+
+    public PageLoader(PlatformTransactionManager transactionManager, PageLoadProperties properties) {
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "page-load-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Start assembling one page; reads begin as soon as they are added.
+     */
+    public PageLoad begin(String page) {
+        return new PageLoad(page, System.nanoTime() + properties.getDeadline().toNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public final class PageLoad {
+
+        private final String page;
+        private final long deadlineNanos;
+        private final Map<String, Part<?>> parts = new LinkedHashMap<>();
+
+        private PageLoad(String page, long deadlineNanos) {
+            this.page = page;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * A read the page cannot render without; its failure fails the page.
+         */
+        public <T> PageLoad require(String attribute, Supplier<T> loader) {
+            parts.put(attribute, new Part<>(submit(loader), true, null));
+            return this;
+        }
+
+        /**
+         * A read the page can do without: if it fails or misses the
+         * deadline the fallback is rendered instead.
+         */
+        public <T> PageLoad optional(String attribute, Supplier<T> loader, T fallback) {
+            parts.put(attribute, new Part<>(submit(loader), false, fallback));
+            return this;
+        }
+
+        /**
+         * Wait for every read, up to the page deadline, and add the results
+         * to the model.
+         */
+        public void into(Model model) {
+            boolean partial = false;
+            for (Map.Entry<String, Part<?>> entry : parts.entrySet()) {
+                String attribute = entry.getKey();
+                Part<?> part = entry.getValue();
+                try {
+                    long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+                    model.addAttribute(attribute, part.future.get(remaining, TimeUnit.NANOSECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelAll();
+                    throw new IllegalStateException("Interrupted while loading " + page, e);
+                } catch (TimeoutException | ExecutionException | CancellationException e) {
+                    part.future.cancel(true);
+                    if (part.required) {
+                        cancelAll();
+                        throw failure(attribute, e);
+                    }
+                    log.warn("Page {} rendered without {}: {}", page, attribute, describe(e));
+                    model.addAttribute(attribute, part.fallback);
+                    partial = true;
+                }
+            }
+            model.addAttribute(PARTIAL_ATTRIBUTE, partial);
+        }
+
+        private <T> Future<T> submit(Supplier<T> loader) {
+            return executor.submit(() -> readOnlyTransaction.execute(status -> loader.get()));
+        }
+
+        private void cancelAll() {
+            parts.values().forEach(part -> part.future.cancel(true));
+        }
+
+        private RuntimeException failure(String attribute, Exception e) {
+            // Surface the service's own exception so existing error handling applies
+            if (e instanceof ExecutionException && e.getCause() instanceof RuntimeException cause) {
+                return cause;
+            }
+            return new IllegalStateException("Could not load " + attribute + " for " + page + ": " + describe(e), e);
+        }
+
+        private String describe(Exception e) {
+            if (e instanceof TimeoutException) {
+                return "deadline of " + properties.getDeadline().toMillis() + " ms exceeded";
+            }
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            return cause.toString();
+        }
+    }
+
+    @Value
+    private static class Part<T> {
+        Future<T> future;
+        boolean required;
+        T fallback;
+    }
+}
@@ -13,19 +13,141 @@ document.addEventListener('DOMContentLoaded', function() {
         });
     });
     
-    // Search autocomplete (placeholder for future implementation)
+    // Search autocomplete
     const searchInput = document.querySelector('input[name="keyword"]');
-    if (searchInput) {
+    const suggestionList = document.getElementById('search-suggestions');
+    if (searchInput && suggestionList) {
         searchInput.addEventListener('input', debounce(function(e) {
             const query = e.target.value;
-            if (query.length > 2) {
-                // TODO: Implement autocomplete
-                console.log('Searching for:', query);
+            if (query.trim().length < 2) {
+                suggestionList.innerHTML = '';
+                return;
             }
-        }, 300));
+            fetch(`/search/suggest?q=${encodeURIComponent(query)}`)
+                .then(response => response.json())
+                .then(suggestions => {
+                    suggestionList.innerHTML = '';
+                    suggestions.forEach(suggestion => {
+                        const option = document.createElement('option');
+                        option.value = suggestion.text;
+                        suggestionList.appendChild(option);
+                    });
+                })
+                .catch(error => console.error('Autocomplete failed:', error));
+        }, 150));
     }
+
+    // Direct-to-storage file uploads on the product form
+    document.querySelectorAll('.direct-upload').forEach(container => {
+        container.querySelector('.direct-upload-start').addEventListener('click', function() {
+            const files = Array.from(container.querySelector('.direct-upload-file').files);
+            const preview = container.querySelector('.direct-upload-preview').checked;
+            uploadFiles(container, files, preview);
+        });
+    });
 });
 
+// Headers that let JSON POSTs pass CSRF protection
+function csrfHeaders() {
+    const token = document.querySelector('meta[name="_csrf"]');
+    const header = document.querySelector('meta[name="_csrf_header"]');
+    const headers = { 'Content-Type': 'application/json' };
+    if (token && header) {
+        headers[header.content] = token.content;
+    }
+    return headers;
+}
+
+// Upload files one after another, straight to storage
+async function uploadFiles(container, files, preview) {
+    const baseUrl = container.dataset.uploadUrl;
+    const status = container.querySelector('.direct-upload-status');
+    const progress = container.querySelector('.progress');
+    const bar = progress.querySelector('.progress-bar');
+    const total = files.reduce((sum, file) => sum + file.size, 0);
+    let done = 0;
+
+    progress.classList.remove('d-none');
+    for (const file of files) {
+        status.textContent = `Uploading ${file.name}...`;
+        try {
+            await uploadFile(baseUrl, file, preview, bytes => {
+                done += bytes;
+                bar.style.width = `${Math.round(done * 100 / total)}%`;
+            });
+        } catch (error) {
+            console.error('Upload failed:', error);
+            status.textContent = `Upload of ${file.name} failed: ${error.message}`;
+            return;
+        }
+    }
+    window.location.reload();
+}
+
+async function uploadFile(baseUrl, file, preview, onProgress) {
+    const contentType = file.type || 'application/octet-stream';
+    const ticket = await postJson(baseUrl, { filename: file.name, contentType: contentType, size: file.size });
+
+    let parts = [];
+    if (ticket.uploadId) {
+        try {
+            parts = await uploadParts(ticket, file, onProgress);
+        } catch (error) {
+            const params = new URLSearchParams({ fileKey: ticket.fileKey, uploadId: ticket.uploadId });
+            fetch(`${baseUrl}/abort?${params}`, { method: 'POST', headers: csrfHeaders() });
+            throw error;
+        }
+    } else {
+        await putBlob(ticket.urls[0], file, contentType);
+        onProgress(file.size);
+    }
+
+    await postJson(`${baseUrl}/complete`, {
+        fileKey: ticket.fileKey,
+        uploadId: ticket.uploadId,
+        filename: file.name,
+        contentType: contentType,
+        size: file.size,
+        preview: preview,
+        parts: parts
+    });
+}
+
+// Send the parts of a multipart upload, a few at a time
+async function uploadParts(ticket, file, onProgress) {
+    const parts = [];
+    let next = 0;
+    async function worker() {
+        while (next < ticket.urls.length) {
+            const index = next++;
+            const blob = file.slice(index * ticket.partSize, (index + 1) * ticket.partSize);
+            const response = await putBlob(ticket.urls[index], blob, null);
+            parts.push({ partNumber: index + 1, etag: response.headers.get('ETag') });
+            onProgress(blob.size);
+        }
+    }
+    await Promise.all(Array.from({ length: Math.min(4, ticket.urls.length) }, worker));
+    return parts;
+}
+
+async function putBlob(url, blob, contentType) {
+    const headers = contentType ? { 'Content-Type': contentType } : {};
+    const response = await fetch(url, { method: 'PUT', headers: headers, body: blob });
+    if (!response.ok) {
+        throw new Error(`storage responded ${response.status}`);
+    }
+    return response;
+}
+
+async function postJson(url, body) {
+    const response = await fetch(url, { method: 'POST', headers: csrfHeaders(), body: JSON.stringify(body) });
+    const data = await response.json();
+    if (!response.ok) {
+        throw new Error(data.error || `server responded ${response.status}`);
+    }
+    return data;
+}
+
 // Add product to cart
 function addToCart(productId) {
     fetch(`/cart/add`, {